@@ -0,0 +1,99 @@
+package com.backend.app.config;
+
+import com.backend.app.metrics.IngestionMetrics;
+import com.backend.app.metrics.UserApiMetricsInterceptor;
+import com.backend.app.service.UserPageFetcher;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * HTTP client for the external user API, for every profile. Connections are pooled and kept alive between
+ * requests, and the pool is sized from the userApiBulkhead so every permitted call can hold a connection.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${external.api.http.connect-timeout:2s}")
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    @Value("${external.api.http.read-timeout:10s}")
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    @Value("${external.api.http.idle-timeout:30s}")
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    @Value("${external.api.http.max-connections:20}")
+    private int maxConnections = 20;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager userApiConnectionManager(BulkheadRegistry bulkheadRegistry) {
+        int perRoute = bulkheadConfig(bulkheadRegistry).getMaxConcurrentCalls();
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnPerRoute(perRoute)
+                .setMaxConnTotal(Math.max(perRoute, maxConnections))
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Response compression (Accept-Encoding: gzip, deflate) is on by default and decoded transparently.
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient userApiHttpClient(PoolingHttpClientConnectionManager userApiConnectionManager,
+                                                 BulkheadRegistry bulkheadRegistry) {
+        // A caller holding a bulkhead permit waits for a connection no longer than it waited for the permit
+        Duration leaseTimeout = bulkheadConfig(bulkheadRegistry).getMaxWaitDuration();
+        return HttpClients.custom()
+                .setConnectionManager(userApiConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(leaseTimeout.isZero() ? connectTimeout : leaseTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleTimeout))
+                .build();
+    }
+
+    /**
+     * Requests are timed as the fetch and decode phases of ingestion.
+     */
+    @Bean
+    public RestTemplate restTemplate(CloseableHttpClient userApiHttpClient, IngestionMetrics ingestionMetrics) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(userApiHttpClient));
+        restTemplate.getInterceptors().add(new UserApiMetricsInterceptor(ingestionMetrics));
+        return restTemplate;
+    }
+
+    /**
+     * Publishes httpcomponents.httpclient.pool.* gauges (leased, available, pending, max) tagged httpclient=userApi.
+     */
+    @Bean
+    public MeterBinder userApiConnectionPoolMetrics(PoolingHttpClientConnectionManager userApiConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(userApiConnectionManager, "userApi");
+    }
+
+    private static BulkheadConfig bulkheadConfig(BulkheadRegistry bulkheadRegistry) {
+        return bulkheadRegistry.bulkhead(UserPageFetcher.BULKHEAD_NAME).getBulkheadConfig();
+    }
+}
@@ -0,0 +1,67 @@
+package com.backend.app.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Latency histograms for the HTTP routes. Every route publishes a percentile histogram and the /api/users routes
+ * add SLO buckets, taken from users.metrics.slo.default or from a per-route override keyed by the uri tag, e.g.
+ * {@code users.metrics.slo.routes.[/api/users/export]=1s,10s,60s}.
+ */
+@Configuration
+public class MetricsConfig {
+    static final String HTTP_SERVER_REQUESTS = "http.server.requests";
+    static final String USERS_ROUTES = "/api/users";
+
+    @Bean
+    public MeterFilter userRoutesSloMeterFilter(Environment environment) {
+        Binder binder = Binder.get(environment);
+        double[] defaults = slo(binder.bind("users.metrics.slo.default", String.class).orElse("100ms,250ms,500ms,1s,5s"));
+        Map<String, double[]> routes = new HashMap<>();
+        binder.bind("users.metrics.slo.routes", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of())
+                .forEach((uri, boundaries) -> routes.put(uri, slo(boundaries)));
+
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!HTTP_SERVER_REQUESTS.equals(id.getName())) {
+                    return config;
+                }
+                // Prometheus needs one type per metric name, so every route is a histogram, not only ours
+                DistributionStatisticConfig.Builder distribution = DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true);
+                String uri = id.getTag("uri");
+                if (uri != null && uri.startsWith(USERS_ROUTES)) {
+                    distribution.serviceLevelObjectives(routes.getOrDefault(uri, defaults));
+                }
+                return distribution.build().merge(config);
+            }
+        };
+    }
+
+    /**
+     * Comma-separated durations as timer boundaries in nanoseconds.
+     */
+    private static double[] slo(String boundaries) {
+        return Arrays.stream(boundaries.split(","))
+                .map(String::trim)
+                .filter(boundary -> !boundary.isEmpty())
+                .map(DurationStyle::detectAndParse)
+                .mapToDouble(Duration::toNanos)
+                .sorted()
+                .toArray();
+    }
+}
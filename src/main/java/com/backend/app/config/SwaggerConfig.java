@@ -1,10 +1,15 @@
 package com.backend.app.config;
 
 import io.swagger.v3.oas.models.OpenAPI;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+/**
+ * OpenAPI metadata for springdoc. Skipped along with springdoc when springdoc.api-docs.enabled=false, as in prod.
+ */
 @Configuration
+@ConditionalOnProperty(name = "springdoc.api-docs.enabled", matchIfMissing = true)
 public class SwaggerConfig {
 
     @Bean
@@ -16,4 +21,3 @@ public class SwaggerConfig {
                         .description("API for managing users in the system"));
     }
 }
-
@@ -1,12 +1,32 @@
 package com.backend.app.controller;
 
+import com.backend.app.dto.LoadResult;
+import com.backend.app.dto.NearbyUser;
+import com.backend.app.dto.UserAreaResult;
+import com.backend.app.dto.UserFilter;
+import com.backend.app.dto.UserLookupResult;
+import com.backend.app.dto.UserPage;
+import com.backend.app.dto.UserStats;
 import com.backend.app.entity.User;
 import com.backend.app.exception.ExternalApiException;
+import com.backend.app.service.ExportFormat;
+import com.backend.app.service.UserAggregates;
+import com.backend.app.service.UserChangeFeed;
+import com.backend.app.service.UserColumnStore;
+import com.backend.app.service.UserExportService;
+import com.backend.app.service.UserGeoIndex;
+import com.backend.app.service.UserLoadCoordinator;
+import com.backend.app.service.UserLookupService;
+import com.backend.app.service.UserSearchIndex;
 import com.backend.app.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.constraints.Pattern;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.*;
 import java.util.concurrent.Callable;
@@ -26,15 +46,35 @@ import java.util.stream.Stream;
 public class UserController {
     private final UserService userService;
 
-    public UserController(UserService userService) {
+    private final UserExportService userExportService;
+    private final UserLoadCoordinator userLoadCoordinator;
+    private final UserLookupService userLookupService;
+    private final UserSearchIndex userSearchIndex;
+    private final UserGeoIndex userGeoIndex;
+    private final UserAggregates userAggregates;
+    private final UserColumnStore userColumnStore;
+    private final UserChangeFeed userChangeFeed;
+
+    public UserController(UserService userService, UserExportService userExportService,
+                          UserLoadCoordinator userLoadCoordinator, UserLookupService userLookupService,
+                          UserSearchIndex userSearchIndex, UserGeoIndex userGeoIndex, UserAggregates userAggregates,
+                          UserColumnStore userColumnStore, UserChangeFeed userChangeFeed) {
         this.userService = userService;
+        this.userExportService = userExportService;
+        this.userLoadCoordinator = userLoadCoordinator;
+        this.userLookupService = userLookupService;
+        this.userSearchIndex = userSearchIndex;
+        this.userGeoIndex = userGeoIndex;
+        this.userAggregates = userAggregates;
+        this.userColumnStore = userColumnStore;
+        this.userChangeFeed = userChangeFeed;
     }
 
     @PostMapping("/load")
-    @Operation(summary = "Load users from external API and save to the database")
-    public ResponseEntity<String> loadUsers() throws ExternalApiException {
-        userService.loadUsers();
-        return ResponseEntity.ok("Users loaded successfully.");
+    @Operation(summary = "Load users from external API and save new or changed users to the database. "
+            + "Concurrent calls share one load")
+    public ResponseEntity<LoadResult> loadUsers() throws ExternalApiException {
+        return ResponseEntity.ok(userLoadCoordinator.load());
     }
 
     @GetMapping
@@ -43,6 +83,71 @@ public class UserController {
         return userService.getAllUsers();
     }
 
+    @GetMapping(params = "limit")
+    @Operation(summary = "Get a page of users ordered by id, optionally projected to the given fields")
+    public UserPage getUsersPage(@RequestParam int limit,
+                                 @RequestParam(required = false) String cursor,
+                                 @RequestParam(required = false) List<String> fields) {
+        return userService.getUsersPage(limit, cursor, fields);
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Stream all users as NDJSON or CSV")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        StreamingResponseBody body = out -> userExportService.export(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + exportFormat.getFileName() + "\"")
+                .body(body);
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream user inserts, updates and deletes made by loads as Server-Sent Events, resuming "
+            + "after the since sequence or the Last-Event-ID header")
+    public SseEmitter streamUserChanges(@RequestParam(required = false) Long since,
+                                        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return userChangeFeed.subscribe(since != null ? since : eventId(lastEventId));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search users by name, username or email, with prefix and typo-tolerant matching, best matches first")
+    public List<User> searchUsers(@RequestParam String q, @RequestParam(defaultValue = "20") int limit) {
+        return userSearchIndex.search(q, limit);
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Get user counts by role, gender, blood group, department and currency, and age, height "
+            + "and weight histograms")
+    public UserStats getUserStats() {
+        return userAggregates.stats();
+    }
+
+    @GetMapping("/filter")
+    @Operation(summary = "Get a page of users ordered by id matching roles, genders, blood groups, eye colors and "
+            + "age, height and weight ranges")
+    public UserPage getUsersFiltered(@ModelAttribute UserFilter filter,
+                                     @RequestParam(defaultValue = "100") int limit,
+                                     @RequestParam(required = false) String cursor) {
+        return userColumnStore.filter(filter, limit, cursor);
+    }
+
+    @GetMapping("/near")
+    @Operation(summary = "Get users whose company is within radiusKm of a point, nearest first")
+    public List<NearbyUser> getUsersNear(@RequestParam double lat, @RequestParam double lng,
+                                         @RequestParam double radiusKm,
+                                         @RequestParam(defaultValue = "100") int limit) {
+        return userGeoIndex.near(lat, lng, radiusKm, limit);
+    }
+
+    @GetMapping("/within")
+    @Operation(summary = "Count the users whose company is in a bounding box and get the first of them by id")
+    public UserAreaResult getUsersWithin(@RequestParam double minLat, @RequestParam double minLng,
+                                         @RequestParam double maxLat, @RequestParam double maxLng,
+                                         @RequestParam(defaultValue = "100") int limit) {
+        return userGeoIndex.within(minLat, minLng, maxLat, maxLng, limit);
+    }
+
     @GetMapping("/role/{role}")
     @Operation(summary = "Get users by role")
     public List<User> getUsersByRole(@PathVariable @Pattern(
@@ -58,10 +163,39 @@ public class UserController {
         return userService.getUsersSortedByAge(order);
     }
 
+    @GetMapping(value = "/sort", params = "limit")
+    @Operation(summary = "Get a page of users sorted by age, optionally projected to the given fields")
+    public UserPage getUsersSortedByAgePage(@RequestParam(defaultValue = "asc") String order,
+                                            @RequestParam int limit,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) List<String> fields) {
+        return userService.getUsersSortedByAgePage(order, limit, cursor, fields);
+    }
+
+    @PostMapping("/lookup")
+    @Operation(summary = "Get many users by ID or SSN in one request, with the keys that matched no user")
+    public UserLookupResult lookupUsers(@RequestBody List<String> idsOrSsns) {
+        return userLookupService.lookup(idsOrSsns);
+    }
+
     @GetMapping("/{idOrSsn}")
     @Operation(summary = "Get user by ID or SSN")
     public User getUserByIdOrSsn(@PathVariable String idOrSsn) {
         return userService.getUserByIdOrSsn(idOrSsn);
     }
-}
 
+    /**
+     * The Last-Event-ID a client sends back is whatever id it last saw; one that is not a sequence number is
+     * treated as no resume point rather than rejected, so the client reconnects to the live feed.
+     */
+    private static Long eventId(String lastEventId) {
+        if (lastEventId == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.backend.app.dao;
+
+import com.backend.app.entity.Address;
+import com.backend.app.entity.Bank;
+import com.backend.app.entity.Company;
+import com.backend.app.entity.Coordinates;
+import com.backend.app.entity.Crypto;
+import com.backend.app.entity.Hair;
+import com.backend.app.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bulk write path for ingestion. New users are written with batched multi-row inserts and existing ones
+ * with batched H2 {@code MERGE INTO users ... KEY (id)} statements, which avoids the SELECT-then-INSERT
+ * merge JPA performs for entities with assigned ids.
+ */
+@Repository
+public class UserBatchWriter {
+
+    /**
+     * Column name to value extractor for every column of the flattened users table.
+     */
+    public static final Map<String, Function<User, Object>> COLUMNS;
+
+    static {
+        Map<String, Function<User, Object>> columns = new LinkedHashMap<>();
+        columns.put("id", User::getId);
+        columns.put("first_name", User::getFirstName);
+        columns.put("last_name", User::getLastName);
+        columns.put("maiden_name", User::getMaidenName);
+        columns.put("age", User::getAge);
+        columns.put("gender", User::getGender);
+        columns.put("email", User::getEmail);
+        columns.put("phone", User::getPhone);
+        columns.put("username", User::getUsername);
+        columns.put("password", User::getPassword);
+        columns.put("birth_date", User::getBirthDate);
+        columns.put("image", User::getImage);
+        columns.put("blood_group", User::getBloodGroup);
+        columns.put("height", User::getHeight);
+        columns.put("weight", User::getWeight);
+        columns.put("eye_color", User::getEyeColor);
+        columns.put("color", user -> hair(user).map(Hair::getColor).orElse(null));
+        columns.put("type", user -> hair(user).map(Hair::getType).orElse(null));
+        columns.put("ip", User::getIp);
+        columns.put("mac_address", User::getMacAddress);
+        columns.put("university", User::getUniversity);
+        columns.put("card_expire", user -> bank(user).map(Bank::getCardExpire).orElse(null));
+        columns.put("card_number", user -> bank(user).map(Bank::getCardNumber).orElse(null));
+        columns.put("card_type", user -> bank(user).map(Bank::getCardType).orElse(null));
+        columns.put("currency", user -> bank(user).map(Bank::getCurrency).orElse(null));
+        columns.put("iban", user -> bank(user).map(Bank::getIban).orElse(null));
+        columns.put("department", user -> company(user).map(Company::getDepartment).orElse(null));
+        columns.put("name", user -> company(user).map(Company::getName).orElse(null));
+        columns.put("title", user -> company(user).map(Company::getTitle).orElse(null));
+        columns.put("address", user -> address(user).map(Address::getAddress).orElse(null));
+        columns.put("city", user -> address(user).map(Address::getCity).orElse(null));
+        columns.put("state", user -> address(user).map(Address::getState).orElse(null));
+        columns.put("state_code", user -> address(user).map(Address::getStateCode).orElse(null));
+        columns.put("postal_code", user -> address(user).map(Address::getPostalCode).orElse(null));
+        columns.put("country", user -> address(user).map(Address::getCountry).orElse(null));
+        columns.put("lat", user -> coordinates(user).map(Coordinates::getLat).orElse(null));
+        columns.put("lng", user -> coordinates(user).map(Coordinates::getLng).orElse(null));
+        columns.put("ein", User::getEin);
+        columns.put("ssn", User::getSsn);
+        columns.put("user_agent", User::getUserAgent);
+        columns.put("role", User::getRole);
+        columns.put("coin", user -> crypto(user).map(Crypto::getCoin).orElse(null));
+        columns.put("wallet", user -> crypto(user).map(Crypto::getWallet).orElse(null));
+        columns.put("network", user -> crypto(user).map(Crypto::getNetwork).orElse(null));
+        COLUMNS = Collections.unmodifiableMap(columns);
+    }
+
+    private static final String ROW = "(" + String.join(", ", Collections.nCopies(COLUMNS.size(), "?")) + ")";
+
+    static final String UPSERT_SQL = "MERGE INTO users (" + String.join(", ", COLUMNS.keySet()) + ") KEY (id) VALUES " + ROW;
+
+    static final String INSERT_SQL = "INSERT INTO users (" + String.join(", ", COLUMNS.keySet()) + ") VALUES ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${ingestion.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${ingestion.rows-per-insert:50}")
+    private int rowsPerInsert;
+
+    public UserBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert or update a chunk of users in one transaction using JDBC statement batching.
+     *
+     * @param users Users to write
+     * @return Number of users written
+     */
+    @Transactional
+    public int upsert(List<User> users) {
+        if (users.isEmpty()) {
+            return 0;
+        }
+        // Push out any pending JPA changes first and drop managed copies that the batch makes stale
+        entityManager.flush();
+        jdbcTemplate.batchUpdate(UPSERT_SQL, users, batchSize, UserBatchWriter::bind);
+        entityManager.clear();
+        return users.size();
+    }
+
+    /**
+     * Insert a chunk of users that are not in the table yet, packing several rows into each statement.
+     *
+     * @param users Users to insert
+     * @return Number of users written
+     * @throws org.springframework.dao.DuplicateKeyException if any of the ids already exists
+     */
+    @Transactional
+    public int insert(List<User> users) {
+        if (users.isEmpty()) {
+            return 0;
+        }
+        entityManager.flush();
+        insertPacked(users, UserBatchWriter::bind);
+        entityManager.clear();
+        return users.size();
+    }
+
+    /**
+     * Binds one row's values starting at the given parameter index and returns the next index.
+     */
+    @FunctionalInterface
+    private interface RowBinder<T> {
+        int bind(PreparedStatement ps, T row, int index) throws SQLException;
+    }
+
+    private <T> void insertPacked(List<T> rows, RowBinder<T> binder) {
+        int perStatement = Math.max(1, rowsPerInsert);
+        int packed = rows.size() - rows.size() % perStatement;
+        if (packed > 0) {
+            List<List<T>> groups = new ArrayList<>(packed / perStatement);
+            for (int from = 0; from < packed; from += perStatement) {
+                groups.add(rows.subList(from, from + perStatement));
+            }
+            String sql = INSERT_SQL + String.join(", ", Collections.nCopies(perStatement, ROW));
+            jdbcTemplate.batchUpdate(sql, groups, batchSize, (ps, group) -> {
+                int index = 1;
+                for (T row : group) {
+                    index = binder.bind(ps, row, index);
+                }
+            });
+        }
+        if (packed < rows.size()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL + ROW, rows.subList(packed, rows.size()), batchSize,
+                    (ps, row) -> binder.bind(ps, row, 1));
+        }
+    }
+
+    private static void bind(PreparedStatement ps, User user) throws SQLException {
+        bind(ps, user, 1);
+    }
+
+    private static int bind(PreparedStatement ps, User user, int index) throws SQLException {
+        for (Function<User, Object> column : COLUMNS.values()) {
+            ps.setObject(index++, column.apply(user));
+        }
+        return index;
+    }
+
+    private static Optional<Hair> hair(User user) {
+        return Optional.ofNullable(user.getHair());
+    }
+
+    private static Optional<Bank> bank(User user) {
+        return Optional.ofNullable(user.getBank());
+    }
+
+    private static Optional<Company> company(User user) {
+        return Optional.ofNullable(user.getCompany());
+    }
+
+    private static Optional<Address> address(User user) {
+        return company(user).map(Company::getAddress);
+    }
+
+    private static Optional<Coordinates> coordinates(User user) {
+        return address(user).map(Address::getCoordinates);
+    }
+
+    private static Optional<Crypto> crypto(User user) {
+        return Optional.ofNullable(user.getCrypto());
+    }
+}
@@ -0,0 +1,103 @@
+package com.backend.app.dao;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access to the user_fingerprints table used by incremental syncs.
+ */
+@Repository
+public class UserFingerprintStore {
+    static final String MERGE_SQL = "MERGE INTO user_fingerprints (id, fingerprint, sync_run) KEY (id) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Value("${ingestion.batch-size:1000}")
+    private int batchSize;
+
+    public UserFingerprintStore(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    /**
+     * Start a new sync run.
+     *
+     * @return A run number greater than any run recorded so far
+     */
+    public long nextSyncRun() {
+        Long last = jdbcTemplate.queryForObject("SELECT MAX(sync_run) FROM user_fingerprints", Long.class);
+        return last == null ? 1 : last + 1;
+    }
+
+    /**
+     * Look up which of the given users already exist and their stored fingerprints.
+     *
+     * @param ids User ids
+     * @return Existing user id to fingerprint; the fingerprint is null when the row was written outside a sync
+     */
+    public Map<Long, Long> findExisting(Collection<Long> ids) {
+        Map<Long, Long> existing = new HashMap<>(ids.size() * 2);
+        if (ids.isEmpty()) {
+            return existing;
+        }
+        namedParameterJdbcTemplate.query(
+                "SELECT u.id, f.fingerprint FROM users u LEFT JOIN user_fingerprints f ON f.id = u.id WHERE u.id IN (:ids)",
+                Map.of("ids", ids),
+                rs -> {
+                    long fingerprint = rs.getLong(2);
+                    existing.put(rs.getLong(1), rs.wasNull() ? null : fingerprint);
+                });
+        return existing;
+    }
+
+    /**
+     * Record the fingerprints of the users seen in a chunk and stamp them with the current run.
+     *
+     * @param fingerprints User id to fingerprint
+     * @param syncRun      Current sync run
+     */
+    @Transactional
+    public void save(Map<Long, Long> fingerprints, long syncRun) {
+        jdbcTemplate.batchUpdate(MERGE_SQL, fingerprints.entrySet(), batchSize, (ps, entry) -> {
+            ps.setLong(1, entry.getKey());
+            ps.setLong(2, entry.getValue());
+            ps.setLong(3, syncRun);
+        });
+    }
+
+    /**
+     * Find the users that were synced before but not seen by the given run.
+     *
+     * @param syncRun Current sync run
+     * @return Ids of users missing from the feed
+     */
+    public List<Long> findNotSeenIn(long syncRun) {
+        return jdbcTemplate.queryForList("SELECT id FROM user_fingerprints WHERE sync_run < ?", Long.class, syncRun);
+    }
+
+    /**
+     * Delete users and their fingerprints.
+     *
+     * @param ids User ids
+     * @return Number of users deleted
+     */
+    @Transactional
+    public int delete(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Map<String, Object> params = Map.of("ids", ids);
+        namedParameterJdbcTemplate.update("DELETE FROM user_fingerprints WHERE id IN (:ids)", params);
+        return namedParameterJdbcTemplate.update("DELETE FROM users WHERE id IN (:ids)", params);
+    }
+}
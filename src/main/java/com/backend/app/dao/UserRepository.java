@@ -1,17 +1,55 @@
 package com.backend.app.dao;
 
 import com.backend.app.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+    String USERS_BY_ID_CACHE = "usersById";
+    String USERS_BY_SSN_CACHE = "usersBySsn";
+
     List<User> findByRole(String role);
     List<User> findAllByOrderByAgeAsc();
     List<User> findAllByOrderByAgeDesc();
+
+    /**
+     * Cached lookup by id. A missing user is cached as null so repeated misses do not reach the database.
+     */
+    @Override
+    @Cacheable(USERS_BY_ID_CACHE)
+    Optional<User> findById(Long id);
+
+    /**
+     * Cached lookup by SSN. A missing user is cached as null so repeated misses do not reach the database.
+     */
+    @Cacheable(USERS_BY_SSN_CACHE)
     Optional<User> findBySsn(String ssn);
+
+    /**
+     * Uncached lookup of many SSNs with one IN query, for bulk lookups that consult the cache themselves.
+     */
+    List<User> findBySsnIn(Collection<String> ssns);
+
+    /**
+     * Stream every user in id order through a database cursor. Must be consumed inside a transaction
+     * and closed afterwards; callers detach each user once written so the persistence context stays small.
+     */
+    @Query("select u from User u order by u.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<User> streamAllByOrderById();
 }
 
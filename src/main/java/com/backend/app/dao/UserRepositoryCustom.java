@@ -0,0 +1,36 @@
+package com.backend.app.dao;
+
+import java.util.List;
+
+/**
+ * Keyset (seek) pagination queries for users. When {@code fields} is empty the rows are {@code User}
+ * entities, otherwise they are maps holding only the requested fields plus the "id" and "age" sort keys.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Names of the user fields that can be requested in a projection.
+     */
+    List<String> projectableFields();
+
+    /**
+     * Fetch the users with an id greater than {@code afterId}, ordered by id.
+     *
+     * @param afterId Id of the last row of the previous page, null for the first page
+     * @param limit   Maximum number of rows
+     * @param fields  Fields to select, empty for whole entities
+     */
+    List<?> findPageOrderById(Long afterId, int limit, List<String> fields);
+
+    /**
+     * Fetch the users after the given (age, id) position, ordered by age then id. Users without an age
+     * sort before all others in ascending order and after them in descending order.
+     *
+     * @param ascending Sort direction
+     * @param afterAge  Age of the last row of the previous page, null if it had no age
+     * @param afterId   Id of the last row of the previous page, null for the first page
+     * @param limit     Maximum number of rows
+     * @param fields    Fields to select, empty for whole entities
+     */
+    List<?> findPageOrderByAge(boolean ascending, Integer afterAge, Long afterId, int limit, List<String> fields);
+}
@@ -0,0 +1,130 @@
+package com.backend.app.dao;
+
+import com.backend.app.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.metamodel.Attribute;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * JPQL implementation of {@link UserRepositoryCustom}. Every page is a bounded range scan over the primary
+ * key or the (age, id) index, so the cost does not grow with the page depth.
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile List<String> projectableFields;
+
+    @Override
+    public List<String> projectableFields() {
+        if (projectableFields == null) {
+            projectableFields = entityManager.getMetamodel().entity(User.class).getSingularAttributes().stream()
+                    .filter(attribute -> attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC)
+                    .map(Attribute::getName)
+                    .sorted()
+                    .toList();
+        }
+        return projectableFields;
+    }
+
+    @Override
+    public List<?> findPageOrderById(Long afterId, int limit, List<String> fields) {
+        String where = afterId == null ? "" : " where u.id > :afterId";
+        Query query = entityManager.createQuery("select " + select(fields) + " from User u" + where + " order by u.id");
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+        }
+        return rows(query.setMaxResults(limit), fields);
+    }
+
+    @Override
+    public List<?> findPageOrderByAge(boolean ascending, Integer afterAge, Long afterId, int limit, List<String> fields) {
+        boolean afterNullAge = afterId != null && afterAge == null;
+        List<Object> rows = new ArrayList<>(limit);
+        if (ascending) {
+            if (afterId == null || afterNullAge) {
+                rows.addAll(findNullAgePage(true, afterId, limit, fields));
+            }
+            if (rows.size() < limit) {
+                rows.addAll(findAgedPage(true, afterAge, afterNullAge ? null : afterId, limit - rows.size(), fields));
+            }
+        } else {
+            if (!afterNullAge) {
+                rows.addAll(findAgedPage(false, afterAge, afterId, limit, fields));
+            }
+            if (rows.size() < limit) {
+                rows.addAll(findNullAgePage(false, afterNullAge ? afterId : null, limit - rows.size(), fields));
+            }
+        }
+        return rows;
+    }
+
+    private List<?> findAgedPage(boolean ascending, Integer afterAge, Long afterId, int limit, List<String> fields) {
+        StringBuilder jpql = new StringBuilder("select ").append(select(fields)).append(" from User u where u.age is not null");
+        boolean seek = afterId != null && afterAge != null;
+        if (seek) {
+            // The redundant range predicate on age lets the (age, id) index bound the scan
+            jpql.append(ascending
+                    ? " and u.age >= :afterAge and (u.age > :afterAge or u.id > :afterId)"
+                    : " and u.age <= :afterAge and (u.age < :afterAge or u.id < :afterId)");
+        }
+        String direction = ascending ? "asc" : "desc";
+        jpql.append(" order by u.age ").append(direction).append(", u.id ").append(direction);
+        Query query = entityManager.createQuery(jpql.toString());
+        if (seek) {
+            query.setParameter("afterAge", afterAge);
+            query.setParameter("afterId", afterId);
+        }
+        return rows(query.setMaxResults(limit), fields);
+    }
+
+    private List<?> findNullAgePage(boolean ascending, Long afterId, int limit, List<String> fields) {
+        StringBuilder jpql = new StringBuilder("select ").append(select(fields)).append(" from User u where u.age is null");
+        if (afterId != null) {
+            jpql.append(ascending ? " and u.id > :afterId" : " and u.id < :afterId");
+        }
+        jpql.append(" order by u.id ").append(ascending ? "asc" : "desc");
+        Query query = entityManager.createQuery(jpql.toString());
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+        }
+        return rows(query.setMaxResults(limit), fields);
+    }
+
+    /**
+     * Fields are checked against {@link #projectableFields()} by the caller before they reach the query text.
+     */
+    private static String select(List<String> fields) {
+        if (fields.isEmpty()) {
+            return "u";
+        }
+        return "u.id, u.age" + fields.stream().map(field -> ", u." + field).collect(Collectors.joining());
+    }
+
+    private static List<?> rows(Query query, List<String> fields) {
+        List<?> results = query.getResultList();
+        if (fields.isEmpty()) {
+            return results;
+        }
+        List<Map<String, Object>> rows = new ArrayList<>(results.size());
+        for (Object result : results) {
+            Object[] values = (Object[]) result;
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", values[0]);
+            row.put("age", values[1]);
+            for (int i = 0; i < fields.size(); i++) {
+                row.put(fields.get(i), values[i + 2]);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,168 @@
+package com.backend.app.dao;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+/**
+ * Snapshot of the users table and its sync fingerprints, used to skip the initial upstream load after a restart.
+ * The rows are written with H2's CSVWRITE and restored with one {@code INSERT ... SELECT FROM CSVREAD} per table,
+ * so H2 parses and inserts the whole file itself instead of receiving it back in JDBC batches. A manifest next to
+ * the rows file records the format version, the columns, the row count and a CRC-32 of the rows; both files are
+ * written to temporary files and moved into place, the rows first.
+ */
+@Repository
+public class UserSnapshotStore {
+    static final String VERSION = "2";
+
+    private static final String CSV_OPTIONS = "charset=UTF-8";
+    private static final String COLUMNS = String.join(",", UserBatchWriter.COLUMNS.keySet());
+
+    private static final String SELECT_SQL = "SELECT u." + String.join(", u.", UserBatchWriter.COLUMNS.keySet())
+            + ", f.fingerprint, f.sync_run FROM users u LEFT JOIN user_fingerprints f ON f.id = u.id ORDER BY u.id";
+
+    /** %s is the CSVREAD call; the column names are those of the header CSVWRITE wrote. */
+    private static final String RESTORE_USERS_SQL = "INSERT INTO users (" + String.join(", ", UserBatchWriter.COLUMNS.keySet())
+            + ") SELECT " + String.join(", ", UserBatchWriter.COLUMNS.keySet()) + " FROM %s";
+    private static final String RESTORE_FINGERPRINTS_SQL = "INSERT INTO user_fingerprints (id, fingerprint, sync_run) "
+            + "SELECT id, fingerprint, sync_run FROM %s WHERE fingerprint IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserSnapshotStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Write every user and fingerprint to the snapshot file and its manifest, replacing the previous snapshot.
+     *
+     * @param path Snapshot file
+     * @return Number of users written
+     */
+    @Transactional(readOnly = true)
+    public long write(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path rowsTemp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        Path manifestTemp = Files.createTempFile(parent, manifest(path).getFileName().toString(), ".tmp");
+        try {
+            Integer rows = jdbcTemplate.queryForObject("CALL CSVWRITE(?, ?, ?)", Integer.class,
+                    rowsTemp.toString(), SELECT_SQL, CSV_OPTIONS);
+            force(rowsTemp);
+            Properties manifest = new Properties();
+            manifest.setProperty("version", VERSION);
+            manifest.setProperty("columns", COLUMNS);
+            manifest.setProperty("rows", String.valueOf(rows == null ? 0 : rows));
+            manifest.setProperty("crc", String.valueOf(checksum(rowsTemp)));
+            try (OutputStream out = Files.newOutputStream(manifestTemp)) {
+                manifest.store(out, "User snapshot manifest");
+            }
+            force(manifestTemp);
+            // A crash between the moves leaves a manifest that does not match the rows, which restore rejects
+            Files.move(rowsTemp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(manifestTemp, manifest(path), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return rows == null ? 0 : rows;
+        } finally {
+            Files.deleteIfExists(rowsTemp);
+            Files.deleteIfExists(manifestTemp);
+        }
+    }
+
+    /**
+     * Bulk-insert the users and fingerprints of a snapshot into empty tables. The manifest and the checksum are
+     * verified before any row is written. If an insert fails or the number of users restored differs from the
+     * manifest, both tables are emptied again, so a failed restore never leaves part of the snapshot behind.
+     *
+     * @param path Snapshot file
+     * @return Number of users restored
+     * @throws IOException if the manifest is missing, the file is corrupt or it was written for other columns
+     */
+    public long restore(Path path) throws IOException {
+        Properties manifest = readManifest(path);
+        if (!VERSION.equals(manifest.getProperty("version"))) {
+            throw new IOException("Snapshot " + path + " has an unknown format.");
+        }
+        if (!COLUMNS.equals(manifest.getProperty("columns"))) {
+            throw new IOException("Snapshot " + path + " was written for other user columns.");
+        }
+        long expected = number(manifest, "rows", path);
+        if (checksum(path) != number(manifest, "crc", path)) {
+            throw new IOException("Snapshot " + path + " failed its checksum.");
+        }
+
+        String source = "CSVREAD('" + path.toAbsolutePath().toString().replace("'", "''") + "', NULL, '" + CSV_OPTIONS + "')";
+        try {
+            long restored = jdbcTemplate.update(RESTORE_USERS_SQL.formatted(source));
+            if (restored != expected) {
+                throw new IOException("Snapshot " + path + " holds " + expected + " users but " + restored + " were read.");
+            }
+            jdbcTemplate.update(RESTORE_FINGERPRINTS_SQL.formatted(source));
+            return restored;
+        } catch (IOException | RuntimeException e) {
+            clear();
+            throw e;
+        }
+    }
+
+    /**
+     * Delete every user and fingerprint.
+     */
+    public void clear() {
+        jdbcTemplate.update("DELETE FROM user_fingerprints");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    static Path manifest(Path path) {
+        return path.resolveSibling(path.getFileName() + ".manifest");
+    }
+
+    private static Properties readManifest(Path path) throws IOException {
+        Properties manifest = new Properties();
+        try (InputStream in = Files.newInputStream(manifest(path))) {
+            manifest.load(in);
+        } catch (NoSuchFileException e) {
+            throw new IOException("Snapshot " + path + " has no manifest.", e);
+        }
+        return manifest;
+    }
+
+    private static long number(Properties manifest, String key, Path path) throws IOException {
+        try {
+            return Long.parseLong(manifest.getProperty(key, ""));
+        } catch (NumberFormatException e) {
+            throw new IOException("Snapshot " + path + " has an invalid manifest " + key + ".", e);
+        }
+    }
+
+    private static long checksum(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static void force(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.backend.app.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a user load: how many rows were inserted, updated, left unchanged, deleted or skipped as invalid.
+ */
+@Data
+public class LoadResult {
+    public static final String COMPLETED = "completed";
+    public static final String FAILED = "failed";
+
+    private String status = COMPLETED;
+    private String message;
+    private long inserted;
+    private long updated;
+    private long unchanged;
+    private long deleted;
+    private long invalid;
+    private List<ValidationError> validationErrors = new ArrayList<>();  // First violations of skipped users
+    private long durationMs;
+    private Instant finishedAt;
+
+    public static LoadResult failed(String message) {
+        LoadResult result = new LoadResult();
+        result.setStatus(FAILED);
+        result.setMessage(message);
+        result.setFinishedAt(Instant.now());
+        return result;
+    }
+
+    /**
+     * Add the counts of one written chunk.
+     */
+    public void add(LoadResult chunk) {
+        inserted += chunk.inserted;
+        updated += chunk.updated;
+        unchanged += chunk.unchanged;
+        deleted += chunk.deleted;
+    }
+
+    /**
+     * Record skipped invalid users, keeping at most {@code maxErrors} violations.
+     */
+    public void addInvalid(int users, List<ValidationError> errors, int maxErrors) {
+        invalid += users;
+        int room = maxErrors - validationErrors.size();
+        if (room > 0) {
+            validationErrors.addAll(errors.subList(0, Math.min(room, errors.size())));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.backend.app.dto;
+
+import com.backend.app.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A user found by a radius query and the great-circle distance from the query point to its company.
+ */
+@Data
+@AllArgsConstructor
+public class NearbyUser {
+    private User user;
+    private double distanceKm;
+}
@@ -0,0 +1,39 @@
+package com.backend.app.dto;
+
+import com.backend.app.exception.InvalidPageRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a page, encoded as an opaque URL-safe token.
+ *
+ * @param sort Sort the cursor was issued for, e.g. "id" or "age-desc"
+ * @param age  Age of the last row, null if it had none or the sort is by id
+ * @param id   Id of the last row
+ */
+public record PageCursor(String sort, Integer age, long id) {
+
+    public String encode() {
+        String raw = sort + ":" + (age == null ? "" : age) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token issued for the given sort.
+     *
+     * @throws InvalidPageRequestException if the token is malformed or was issued for another sort
+     */
+    public static PageCursor decode(String token, String expectedSort) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":", -1);
+            if (parts.length == 3 && parts[0].equals(expectedSort)) {
+                Integer age = parts[1].isEmpty() ? null : Integer.valueOf(parts[1]);
+                return new PageCursor(parts[0], age, Long.parseLong(parts[2]));
+            }
+        } catch (IllegalArgumentException e) {
+            // Falls through to the error below; NumberFormatException is an IllegalArgumentException
+        }
+        throw new InvalidPageRequestException("Invalid cursor: " + token);
+    }
+}
@@ -0,0 +1,18 @@
+package com.backend.app.dto;
+
+import com.backend.app.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Outcome of a bounding-box query: how many users have their company in the box and the first of them in id
+ * order, up to the requested limit.
+ */
+@Data
+@AllArgsConstructor
+public class UserAreaResult {
+    private long total;
+    private List<User> users;
+}
@@ -0,0 +1,17 @@
+package com.backend.app.dto;
+
+import com.backend.app.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One insert, update or delete of a user, as sent by the change feed.
+ */
+@Data
+@AllArgsConstructor
+public class UserChange {
+    private long sequence;  // Position in the feed, increasing by one per change; also the SSE event id
+    private String type;    // "insert", "update" or "delete"; also the SSE event name
+    private Long id;
+    private User user;      // The user as written, null for deletes
+}
@@ -0,0 +1,23 @@
+package com.backend.app.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Conditions of a filtered scan; all given conditions must hold. A list matches any of its values and range
+ * bounds are inclusive. Users without a value for a filtered field never match.
+ */
+@Data
+public class UserFilter {
+    private List<String> role;
+    private List<String> gender;
+    private List<String> bloodGroup;
+    private List<String> eyeColor;
+    private Integer minAge;
+    private Integer maxAge;
+    private Double minHeight;
+    private Double maxHeight;
+    private Double minWeight;
+    private Double maxWeight;
+}
@@ -0,0 +1,18 @@
+package com.backend.app.dto;
+
+import com.backend.app.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk lookup: the users found, in the order of the first key that matched each, and the keys
+ * that matched no user, in request order.
+ */
+@Data
+@AllArgsConstructor
+public class UserLookupResult {
+    private List<User> users;
+    private List<String> notFound;
+}
@@ -0,0 +1,17 @@
+package com.backend.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of users. Pass {@code nextCursor} back as the "cursor" parameter to get the following page;
+ * it is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+public class UserPage {
+    private List<?> items;      // Users, or maps of the requested fields
+    private String nextCursor;  // Opaque continuation token
+}
@@ -0,0 +1,39 @@
+package com.backend.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * User counts per value of the categorical fields and fixed-bucket histograms of the numeric ones.
+ */
+@Data
+@AllArgsConstructor
+public class UserStats {
+    private long total;
+    private Map<String, Map<String, Long>> counts;   // Field, e.g. role, to value to users; "unknown" for no value
+    private Map<String, Histogram> histograms;       // Field, e.g. age, to its histogram
+
+    /**
+     * Users per bucket, in ascending order. The first bucket has no lower bound and the last no upper bound.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class Histogram {
+        private List<Bucket> buckets;
+        private long unknown;   // Users without a value
+    }
+
+    /**
+     * Users with a value from {@code from} inclusive to {@code to} exclusive.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class Bucket {
+        private Double from;
+        private Double to;
+        private long count;
+    }
+}
@@ -8,4 +8,7 @@ import java.util.List;
 @Data
 public class UsersResponse {
     private List<User> users;
+    private Integer total;   // Total number of users available upstream
+    private Integer skip;    // Offset of this page
+    private Integer limit;   // Requested page size
 }
@@ -0,0 +1,16 @@
+package com.backend.app.dto;
+
+/**
+ * A single constraint violation of an ingested user.
+ *
+ * @param userId     Id of the invalid user
+ * @param field      Property path of the violating field
+ * @param constraint Simple name of the violated constraint, e.g. "Max"
+ */
+public record ValidationError(Long userId, String field, String constraint) {
+
+    @Override
+    public String toString() {
+        return "user " + userId + " " + field + " " + constraint;
+    }
+}
@@ -9,7 +9,11 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_age_id", columnList = "age, id"),
+        @Index(name = "idx_users_role", columnList = "role"),
+        @Index(name = "idx_users_ssn", columnList = "ssn")
+})
 public class User {
     @Id
     @Column(unique = true, nullable = false)
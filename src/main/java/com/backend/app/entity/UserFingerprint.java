@@ -0,0 +1,30 @@
+package com.backend.app.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Content hash of the last version of a user written by a sync, used to skip unchanged rows.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "user_fingerprints", indexes = @Index(name = "idx_user_fingerprints_sync_run", columnList = "syncRun"))
+public class UserFingerprint {
+    @Id
+    @Column(unique = true, nullable = false)
+    private Long id;           // Id of the user
+
+    @Column(nullable = false)
+    private Long fingerprint;  // Hash of the serialized user, including embedded objects
+
+    @Column(nullable = false)
+    private Long syncRun;      // Last sync run that saw the user in the feed
+}
@@ -0,0 +1,24 @@
+package com.backend.app.event;
+
+import com.backend.app.entity.User;
+
+import java.util.List;
+
+/**
+ * Published by the ingestion write path for every chunk of users it inserted, updated or deleted.
+ * Listeners that keep derived state, such as caches, should react after the chunk's transaction commits.
+ *
+ * @param inserted   Users written for the first time
+ * @param updated    Existing users rewritten with new content
+ * @param deletedIds Ids of users removed from the table
+ */
+public record UsersChangedEvent(List<User> inserted, List<User> updated, List<Long> deletedIds) {
+
+    public static UsersChangedEvent deleted(List<Long> ids) {
+        return new UsersChangedEvent(List.of(), List.of(), ids);
+    }
+
+    public boolean isEmpty() {
+        return inserted.isEmpty() && updated.isEmpty() && deletedIds.isEmpty();
+    }
+}
@@ -0,0 +1,16 @@
+package com.backend.app.event;
+
+import com.backend.app.dto.LoadResult;
+
+/**
+ * Published when a load from the external API has completed and all of its chunks are committed.
+ * Listeners that derive state from the whole table rebuild it here.
+ *
+ * @param result Counts of the completed load
+ */
+public record UsersLoadedEvent(LoadResult result) {
+
+    public boolean hasChanges() {
+        return result.getInserted() + result.getUpdated() + result.getDeleted() > 0;
+    }
+}
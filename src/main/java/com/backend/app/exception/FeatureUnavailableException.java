@@ -0,0 +1,7 @@
+package com.backend.app.exception;
+
+public class FeatureUnavailableException extends RuntimeException {
+    public FeatureUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.backend.app.exception;
+
+public class InvalidGeoQueryException extends RuntimeException {
+    public InvalidGeoQueryException(String message) {
+        super(message);
+    }
+}
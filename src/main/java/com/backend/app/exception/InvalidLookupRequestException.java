@@ -0,0 +1,7 @@
+package com.backend.app.exception;
+
+public class InvalidLookupRequestException extends RuntimeException {
+    public InvalidLookupRequestException(String message) {
+        super(message);
+    }
+}
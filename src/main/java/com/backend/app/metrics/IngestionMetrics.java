@@ -0,0 +1,163 @@
+package com.backend.app.metrics;
+
+import com.backend.app.dto.LoadResult;
+import com.backend.app.dto.ValidationError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Micrometer meters and JFR events for the phases of a user load, exported on /actuator/prometheus:
+ * <ul>
+ *     <li>ingestion_phase_seconds{phase=fetch|decode|validate|persist} per upstream request, response body or chunk</li>
+ *     <li>ingestion_fetch_bytes per response body, counted after gzip decoding</li>
+ *     <li>ingestion_validation_failures_total{field, constraint} per violation</li>
+ *     <li>ingestion_persist_rows_total{result=inserted|updated|unchanged} and ingestion_persist_rows_per_second per chunk</li>
+ *     <li>ingestion_loads_active_seconds{mode=paged|full} for loads in progress</li>
+ * </ul>
+ * Every phase is also recorded as an {@link IngestionPhaseEvent}.
+ */
+@Component
+public class IngestionMetrics {
+    public static final String LOAD = "load";
+    public static final String FETCH = "fetch";
+    public static final String DECODE = "decode";
+    public static final String VALIDATE = "validate";
+    public static final String PERSIST = "persist";
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> phaseTimers;
+    private final DistributionSummary fetchedBytes;
+    private final DistributionSummary persistThroughput;
+    private final Map<String, Counter> persistedRows;
+
+    public IngestionMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.phaseTimers = List.of(FETCH, DECODE, VALIDATE, PERSIST).stream()
+                .collect(Collectors.toUnmodifiableMap(Function.identity(), phase -> Timer.builder("ingestion.phase")
+                        .description("Time spent in one phase of a user load")
+                        .tag("phase", phase)
+                        .publishPercentileHistogram()
+                        .register(registry)));
+        this.fetchedBytes = DistributionSummary.builder("ingestion.fetch.bytes")
+                .description("Size of an external API response body")
+                .baseUnit("bytes")
+                .register(registry);
+        this.persistThroughput = DistributionSummary.builder("ingestion.persist.rows.per.second")
+                .description("Users written or confirmed unchanged per second of a persisted chunk")
+                .register(registry);
+        this.persistedRows = List.of("inserted", "updated", "unchanged").stream()
+                .collect(Collectors.toUnmodifiableMap(Function.identity(), result -> Counter.builder("ingestion.persist.rows")
+                        .description("Users persisted by ingestion")
+                        .tag("result", result)
+                        .register(registry)));
+    }
+
+    /**
+     * Start timing a load. The load shows up as active until the returned phase is stopped.
+     *
+     * @param paged Whether the load follows the upstream pagination
+     */
+    public Phase startLoad(boolean paged) {
+        LongTaskTimer active = LongTaskTimer.builder("ingestion.loads.active")
+                .description("User loads in progress")
+                .tag("mode", paged ? "paged" : "full")
+                .register(registry);
+        return new Phase(LOAD, null, active.start());
+    }
+
+    /**
+     * Start timing one of the {@link #FETCH}, {@link #DECODE}, {@link #VALIDATE} or {@link #PERSIST} phases.
+     */
+    public Phase start(String phase) {
+        Timer timer = phaseTimers.get(phase);
+        if (timer == null) {
+            throw new IllegalArgumentException("Unknown ingestion phase " + phase);
+        }
+        return new Phase(phase, timer, null);
+    }
+
+    public void recordFetchedBytes(long bytes) {
+        fetchedBytes.record(bytes);
+    }
+
+    /**
+     * Count each violation by field and constraint.
+     */
+    public void recordValidationFailures(List<ValidationError> errors) {
+        for (ValidationError error : errors) {
+            registry.counter("ingestion.validation.failures", "field", error.field(), "constraint", error.constraint())
+                    .increment();
+        }
+    }
+
+    /**
+     * Count the rows of a persisted chunk and its throughput.
+     *
+     * @param chunk Counts of the chunk
+     * @param nanos Time it took to persist
+     */
+    public void recordPersisted(LoadResult chunk, long nanos) {
+        persistedRows.get("inserted").increment(chunk.getInserted());
+        persistedRows.get("updated").increment(chunk.getUpdated());
+        persistedRows.get("unchanged").increment(chunk.getUnchanged());
+        long rows = chunk.getInserted() + chunk.getUpdated() + chunk.getUnchanged();
+        if (rows > 0 && nanos > 0) {
+            persistThroughput.record(rows * 1e9 / nanos);
+        }
+    }
+
+    /**
+     * A running phase. Stop it exactly once, from any thread.
+     */
+    public static final class Phase {
+        private final String name;
+        private final Timer timer;
+        private final LongTaskTimer.Sample active;
+        private final IngestionPhaseEvent event = new IngestionPhaseEvent();
+        private final long startNanos = System.nanoTime();
+
+        private Phase(String name, Timer timer, LongTaskTimer.Sample active) {
+            this.name = name;
+            this.timer = timer;
+            this.active = active;
+            event.begin();
+        }
+
+        public long stop(long items) {
+            return stop(items, 0);
+        }
+
+        /**
+         * @param items Users handled by the phase, 0 when not known
+         * @param bytes Bytes handled by the phase
+         * @return Duration of the phase in nanoseconds
+         */
+        public long stop(long items, long bytes) {
+            long nanos = System.nanoTime() - startNanos;
+            if (timer != null) {
+                timer.record(nanos, TimeUnit.NANOSECONDS);
+            }
+            if (active != null) {
+                active.stop();
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.phase = name;
+                event.items = items;
+                event.bytes = bytes;
+                event.commit();
+            }
+            return nanos;
+        }
+    }
+}
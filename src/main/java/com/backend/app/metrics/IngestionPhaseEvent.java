@@ -0,0 +1,33 @@
+package com.backend.app.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one phase of a user load: the whole load, an upstream request until its response headers,
+ * decoding a response body, validating a chunk or persisting it. Disabled JFR costs one branch per phase.
+ */
+@Name(IngestionPhaseEvent.NAME)
+@Label("Ingestion Phase")
+@Category({"Backend App", "Ingestion"})
+@Description("One phase of loading users from the external API")
+@StackTrace(false)
+public class IngestionPhaseEvent extends Event {
+    public static final String NAME = "com.backend.app.IngestionPhase";
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Items")
+    @Description("Users handled by the phase, 0 when not known")
+    long items;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
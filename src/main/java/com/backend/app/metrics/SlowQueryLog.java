@@ -0,0 +1,82 @@
+package com.backend.app.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+
+/**
+ * Logs {@code UserRepository} calls slower than users.slow-query.threshold with the method, its JPQL when declared
+ * with {@code @Query}, the arguments and the duration. SSNs are redacted and entities and collections are logged
+ * by type only. Calls returning a stream are timed until the stream is opened, not until it is consumed.
+ * Per-method timers come from Spring Data's repository metrics (spring.data.repository.invocations).
+ */
+@Aspect
+@Component
+public class SlowQueryLog {
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryLog.class);
+    private static final Pattern SSN = Pattern.compile("\\d{3}-\\d{2}-\\d{4}");
+    static final String REDACTED = "<redacted>";
+
+    @Value("${users.slow-query.threshold:200ms}")
+    private Duration threshold = Duration.ofMillis(200);
+
+    @Around("target(com.backend.app.dao.UserRepository)")
+    public Object logSlowQuery(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            long nanos = System.nanoTime() - start;
+            if (nanos >= threshold.toNanos() && logger.isWarnEnabled()) {
+                logger.warn("Slow query {} took {} ms", describe((MethodSignature) joinPoint.getSignature(),
+                        joinPoint.getArgs()), nanos / 1_000_000);
+            }
+        }
+    }
+
+    private static String describe(MethodSignature signature, Object[] args) {
+        Method method = signature.getMethod();
+        boolean bySsn = method.getName().contains("Ssn");
+        String[] names = signature.getParameterNames();
+        StringJoiner arguments = new StringJoiner(", ", "(", ")");
+        for (int i = 0; i < args.length; i++) {
+            String name = names != null ? names[i] : "arg" + i;
+            arguments.add(name + "=" + describe(args[i], bySsn));
+        }
+        Query query = AnnotatedElementUtils.findMergedAnnotation(method, Query.class);
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName() + arguments
+                + (query != null ? " [" + query.value() + "]" : "");
+    }
+
+    private static String describe(Object arg, boolean bySsn) {
+        if (arg == null) {
+            return "null";
+        }
+        if (arg instanceof CharSequence text) {
+            return bySsn || SSN.matcher(text).find() ? REDACTED : "'" + text + "'";
+        }
+        if (arg instanceof Number || arg instanceof Boolean || arg instanceof Enum<?>) {
+            return arg.toString();
+        }
+        if (arg instanceof Collection<?> collection) {
+            String type = collection instanceof List ? "List" : collection instanceof Set ? "Set" : "Collection";
+            return type + "[size=" + collection.size() + "]";
+        }
+        return arg.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,121 @@
+package com.backend.app.metrics;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Times external API requests: the fetch phase lasts until the response headers arrive and the decode phase
+ * from then until the body has been read and closed. Bodies are bound while they stream in, so decode time
+ * includes reading the rest of the body from the network.
+ */
+public class UserApiMetricsInterceptor implements ClientHttpRequestInterceptor {
+    private final IngestionMetrics ingestionMetrics;
+
+    public UserApiMetricsInterceptor(IngestionMetrics ingestionMetrics) {
+        this.ingestionMetrics = ingestionMetrics;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        IngestionMetrics.Phase fetch = ingestionMetrics.start(IngestionMetrics.FETCH);
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } finally {
+            fetch.stop(0);
+        }
+        return new MeteredResponse(response, ingestionMetrics.start(IngestionMetrics.DECODE));
+    }
+
+    private class MeteredResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final IngestionMetrics.Phase decode;
+        private CountingInputStream body;
+        private boolean closed;
+
+        MeteredResponse(ClientHttpResponse delegate, IngestionMetrics.Phase decode) {
+            this.delegate = delegate;
+            this.decode = decode;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new CountingInputStream(delegate.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                delegate.close();
+            } finally {
+                long bytes = body != null ? body.count : 0;
+                decode.stop(0, bytes);
+                ingestionMetrics.recordFetchedBytes(bytes);
+            }
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.backend.app.service;
+
+import com.backend.app.exception.InvalidExportFormatException;
+
+/**
+ * Output formats of the user export.
+ */
+public enum ExportFormat {
+    /** One JSON user per line. */
+    NDJSON("application/x-ndjson", "users.ndjson"),
+    /** Flattened users, one column per users table column, with a header row. */
+    CSV("text/csv", "users.csv");
+
+    private final String contentType;
+    private final String fileName;
+
+    ExportFormat(String contentType, String fileName) {
+        this.contentType = contentType;
+        this.fileName = fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Parse a format name, ignoring case.
+     *
+     * @throws InvalidExportFormatException if the name is not a known format
+     */
+    public static ExportFormat of(String name) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new InvalidExportFormatException("Invalid export format: " + name + ". Use 'ndjson' or 'csv'.");
+    }
+}
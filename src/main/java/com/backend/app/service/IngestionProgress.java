@@ -0,0 +1,47 @@
+package com.backend.app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks pages and users ingested during a paged load and logs throughput as it goes.
+ */
+class IngestionProgress {
+    private static final Logger logger = LoggerFactory.getLogger(IngestionProgress.class);
+
+    private final long startNanos = System.nanoTime();
+    private long pages;
+    private long users;
+
+    /**
+     * Record a completed page.
+     *
+     * @param pageUsers Number of users persisted from the page
+     * @param total     Total number of users reported upstream, may be null
+     */
+    void pageCompleted(int pageUsers, Integer total) {
+        long pagesSoFar;
+        long usersSoFar;
+        // Log outside the monitor so a virtual thread is not pinned while the appender does I/O
+        synchronized (this) {
+            pagesSoFar = ++pages;
+            usersSoFar = users += pageUsers;
+        }
+        double seconds = elapsedSeconds();
+        logger.info("Ingested page {} ({}/{} users) - {} pages/s, {} users/s",
+                pagesSoFar, usersSoFar, total != null ? total : "?",
+                String.format("%.1f", pagesSoFar / seconds), String.format("%.0f", usersSoFar / seconds));
+    }
+
+    synchronized long getPages() {
+        return pages;
+    }
+
+    synchronized long getUsers() {
+        return users;
+    }
+
+    double elapsedSeconds() {
+        return Math.max((System.nanoTime() - startNanos) / 1_000_000_000d, 1e-9);
+    }
+}
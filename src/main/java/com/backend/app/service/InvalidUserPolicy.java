@@ -0,0 +1,11 @@
+package com.backend.app.service;
+
+/**
+ * What a load does with users that fail validation.
+ */
+public enum InvalidUserPolicy {
+    /** Abort the load when any user is invalid. */
+    FAIL,
+    /** Skip invalid users and keep loading the valid ones. */
+    SKIP
+}
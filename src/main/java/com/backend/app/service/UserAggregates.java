@@ -0,0 +1,282 @@
+package com.backend.app.service;
+
+import com.backend.app.dto.UserStats;
+import com.backend.app.entity.Bank;
+import com.backend.app.entity.Company;
+import com.backend.app.entity.User;
+import com.backend.app.event.UsersChangedEvent;
+import com.backend.app.exception.FeatureUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Optional user counts per role, gender, blood group, company department and bank currency, and fixed-bucket
+ * histograms of age, height and weight, kept in primitive counters. Each user's values are remembered as one
+ * packed long of value codes and bucket numbers, so a committed chunk of a load is applied by subtracting the
+ * old contribution of every user it touches and adding the new one. Reading the statistics then costs the same
+ * whatever the number of users. While the counters are off or not yet built, statistics answer 503.
+ */
+@Component
+public class UserAggregates {
+    private static final Logger logger = LoggerFactory.getLogger(UserAggregates.class);
+    static final String UNKNOWN = "unknown";
+    static final String OTHER = "other";
+
+    /** Bits per categorical value code; code 0 is no value and the highest code collects values past the limit. */
+    private static final int CODE_BITS = 10;
+    private static final int OTHER_CODE = (1 << CODE_BITS) - 1;
+    /** Bits per histogram bucket number: 0 is no value, 1 below the first bound, the last above the last bound. */
+    private static final int BUCKET_BITS = 4;
+
+    private record Category(String name, Function<User, String> value) {
+    }
+
+    private record Histogram(String name, double min, double width, int buckets, Function<User, Number> value) {
+
+        int bucket(Number value) {
+            if (value == null || Double.isNaN(value.doubleValue())) {
+                return 0;
+            }
+            double offset = Math.floor((value.doubleValue() - min) / width);
+            return offset < 0 ? 1 : (int) Math.min(offset, buckets) + 2;
+        }
+    }
+
+    private static final List<Category> CATEGORIES = List.of(
+            new Category("role", User::getRole),
+            new Category("gender", User::getGender),
+            new Category("bloodGroup", User::getBloodGroup),
+            new Category("department",
+                    user -> Optional.ofNullable(user.getCompany()).map(Company::getDepartment).orElse(null)),
+            new Category("currency",
+                    user -> Optional.ofNullable(user.getBank()).map(Bank::getCurrency).orElse(null)));
+
+    private static final List<Histogram> HISTOGRAMS = List.of(
+            new Histogram("age", 0, 10, 10, User::getAge),
+            new Histogram("height", 140, 10, 8, User::getHeight),
+            new Histogram("weight", 40, 10, 10, User::getWeight));
+
+    private static final String SELECT_SQL = "SELECT id, role, gender, blood_group, department, currency, age, height, "
+            + "weight FROM users";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Long> keys = new HashMap<>();
+    private final List<Map<String, Integer>> codes = new ArrayList<>();
+    private final List<List<String>> values = new ArrayList<>();
+    private final long[][] categoryCounts = new long[CATEGORIES.size()][OTHER_CODE + 1];
+    private final long[][] histogramCounts = new long[HISTOGRAMS.size()][];
+    private long total;
+
+    @Value("${users.stats.enabled:false}")
+    private boolean enabled;
+
+    private volatile boolean ready;
+
+    public UserAggregates(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (int i = 0; i < CATEGORIES.size(); i++) {
+            codes.add(new HashMap<>());
+            values.add(new ArrayList<>(List.of(UNKNOWN)));
+        }
+        for (int i = 0; i < HISTOGRAMS.size(); i++) {
+            histogramCounts[i] = new long[HISTOGRAMS.get(i).buckets() + 3];
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Current statistics from the counters.
+     */
+    public UserStats stats() {
+        if (!enabled || !ready) {
+            throw new FeatureUnavailableException("User statistics are " + (enabled ? "still being built" : "not enabled"));
+        }
+        lock.readLock().lock();
+        try {
+            Map<String, Map<String, Long>> counts = new LinkedHashMap<>();
+            for (int i = 0; i < CATEGORIES.size(); i++) {
+                Map<String, Long> byValue = new TreeMap<>();
+                for (int code = 0; code <= OTHER_CODE; code++) {
+                    if (categoryCounts[i][code] > 0) {
+                        byValue.merge(name(i, code), categoryCounts[i][code], Long::sum);
+                    }
+                }
+                counts.put(CATEGORIES.get(i).name(), byValue);
+            }
+            Map<String, UserStats.Histogram> histograms = new LinkedHashMap<>();
+            for (int i = 0; i < HISTOGRAMS.size(); i++) {
+                histograms.put(HISTOGRAMS.get(i).name(), histogram(HISTOGRAMS.get(i), histogramCounts[i]));
+            }
+            return new UserStats(total, counts, histograms);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static UserStats.Histogram histogram(Histogram histogram, long[] counts) {
+        List<UserStats.Bucket> buckets = new ArrayList<>();
+        buckets.add(new UserStats.Bucket(null, histogram.min(), counts[1]));
+        for (int j = 0; j < histogram.buckets(); j++) {
+            buckets.add(new UserStats.Bucket(histogram.min() + j * histogram.width(),
+                    histogram.min() + (j + 1) * histogram.width(), counts[j + 2]));
+        }
+        buckets.add(new UserStats.Bucket(histogram.min() + histogram.buckets() * histogram.width(), null,
+                counts[histogram.buckets() + 2]));
+        return new UserStats.Histogram(buckets, counts[0]);
+    }
+
+    private String name(int category, int code) {
+        return code == OTHER_CODE ? OTHER : values.get(category).get(code);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Subtract the remembered contribution of every user in a committed chunk and add its new one. A chunk committed
+     * during {@link #rebuild} waits for the recount, so a user the scan already counted is replaced, not counted twice.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersChanged(UsersChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            event.inserted().forEach(this::put);
+            event.updated().forEach(this::put);
+            event.deletedIds().forEach(id -> replace(id, null));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Count every user in the table. Until the first build completes, statistics answer 503.
+     */
+    void rebuild() {
+        long startNanos = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            keys.clear();
+            for (long[] counts : categoryCounts) {
+                Arrays.fill(counts, 0);
+            }
+            for (long[] counts : histogramCounts) {
+                Arrays.fill(counts, 0);
+            }
+            total = 0;
+            jdbcTemplate.query(SELECT_SQL, (RowCallbackHandler) rs -> {
+                String[] categories = new String[CATEGORIES.size()];
+                for (int i = 0; i < categories.length; i++) {
+                    categories[i] = rs.getString(i + 2);
+                }
+                Number[] numbers = new Number[HISTOGRAMS.size()];
+                for (int i = 0; i < numbers.length; i++) {
+                    numbers[i] = (Number) rs.getObject(categories.length + i + 2);
+                }
+                replace(rs.getLong(1), key(categories, numbers));
+            });
+            ready = true;
+            logger.info("Built user aggregates: {} users in {} ms.", total, (System.nanoTime() - startNanos) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(User user) {
+        String[] categories = new String[CATEGORIES.size()];
+        for (int i = 0; i < categories.length; i++) {
+            categories[i] = CATEGORIES.get(i).value().apply(user);
+        }
+        Number[] numbers = new Number[HISTOGRAMS.size()];
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = HISTOGRAMS.get(i).value().apply(user);
+        }
+        replace(user.getId(), key(categories, numbers));
+    }
+
+    /**
+     * Pack a user's value codes and bucket numbers into one long, assigning codes to values seen for the first
+     * time.
+     */
+    private long key(String[] categories, Number[] numbers) {
+        long key = 0;
+        for (int i = 0; i < categories.length; i++) {
+            key = key << CODE_BITS | code(i, categories[i]);
+        }
+        for (int i = 0; i < numbers.length; i++) {
+            key = key << BUCKET_BITS | HISTOGRAMS.get(i).bucket(numbers[i]);
+        }
+        return key;
+    }
+
+    private int code(int category, String value) {
+        if (value == null) {
+            return 0;
+        }
+        Integer code = codes.get(category).get(value);
+        if (code != null) {
+            return code;
+        }
+        List<String> known = values.get(category);
+        if (known.size() == OTHER_CODE) {
+            return OTHER_CODE;
+        }
+        codes.get(category).put(value, known.size());
+        known.add(value);
+        return known.size() - 1;
+    }
+
+    /**
+     * Swap a user's contribution for a new one, or remove it when the key is null.
+     */
+    private void replace(long id, Long key) {
+        Long old = key == null ? keys.remove(id) : keys.put(id, key);
+        if (old != null) {
+            count(old, -1);
+        }
+        if (key != null) {
+            count(key, 1);
+        }
+    }
+
+    private void count(long key, int delta) {
+        for (int i = HISTOGRAMS.size() - 1; i >= 0; i--) {
+            histogramCounts[i][(int) (key & (1 << BUCKET_BITS) - 1)] += delta;
+            key >>>= BUCKET_BITS;
+        }
+        for (int i = CATEGORIES.size() - 1; i >= 0; i--) {
+            categoryCounts[i][(int) (key & OTHER_CODE)] += delta;
+            key >>>= CODE_BITS;
+        }
+        total += delta;
+    }
+}
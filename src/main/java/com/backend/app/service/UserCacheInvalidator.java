@@ -0,0 +1,63 @@
+package com.backend.app.service;
+
+import com.backend.app.dao.UserRepository;
+import com.backend.app.entity.User;
+import com.backend.app.event.UsersChangedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the user lookup caches consistent with the bulk write path, which writes through JDBC and so
+ * bypasses the cached repository methods.
+ */
+@Component
+public class UserCacheInvalidator {
+    private final CacheManager cacheManager;
+
+    public UserCacheInvalidator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Evict the written users once their chunk has committed. Inserts only evict their own keys, which
+     * drops any cached miss for them. An update or delete may retire an SSN the event does not carry, so
+     * the SSN cache is cleared instead.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersChanged(UsersChangedEvent event) {
+        Cache byId = cacheManager.getCache(UserRepository.USERS_BY_ID_CACHE);
+        Cache bySsn = cacheManager.getCache(UserRepository.USERS_BY_SSN_CACHE);
+        if (byId != null) {
+            evictIds(byId, event.inserted());
+            evictIds(byId, event.updated());
+            event.deletedIds().forEach(byId::evict);
+        }
+        if (bySsn != null) {
+            if (event.updated().isEmpty() && event.deletedIds().isEmpty()) {
+                event.inserted().stream().map(User::getSsn).filter(ssn -> ssn != null).forEach(bySsn::evict);
+            } else {
+                bySsn.clear();
+            }
+        }
+    }
+
+    /**
+     * Drop every cached lookup, for writes too large to evict user by user such as a snapshot restore.
+     */
+    public void clear() {
+        Stream.of(UserRepository.USERS_BY_ID_CACHE, UserRepository.USERS_BY_SSN_CACHE)
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .forEach(Cache::clear);
+    }
+
+    private static void evictIds(Cache cache, List<User> users) {
+        users.forEach(user -> cache.evict(user.getId()));
+    }
+}
@@ -0,0 +1,230 @@
+package com.backend.app.service;
+
+import com.backend.app.dto.UserChange;
+import com.backend.app.entity.User;
+import com.backend.app.event.UsersChangedEvent;
+import com.backend.app.exception.FeatureUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional feed of the user changes made by loads, for downstream services that would otherwise poll
+ * GET /api/users. Every committed chunk appends one change per inserted, updated and deleted user to a ring
+ * buffer holding the last users.changes.capacity changes, numbered by a sequence that increases by one per
+ * change. Each subscriber reads the buffer at its own pace on its own thread, so a load only waits for the
+ * append itself. A subscriber that falls so far behind that unread changes are overwritten is sent a reset event
+ * and disconnected; it should reread the users it needs and resume from the sequence in that event. Sequences
+ * restart with the application, so a subscriber resuming from a sequence ahead of the feed is reset as well.
+ */
+@Component
+public class UserChangeFeed {
+    private static final Logger logger = LoggerFactory.getLogger(UserChangeFeed.class);
+    public static final String INSERT = "insert";
+    public static final String UPDATE = "update";
+    public static final String DELETE = "delete";
+    public static final String RESET = "reset";
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final UserChange[] ring;
+    private long latest;   // Sequence of the newest change, 0 before the first
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicLong subscriptionCount = new AtomicLong();
+    private final Counter resets;
+
+    @Value("${users.changes.enabled:false}")
+    private boolean enabled;
+
+    @Value("${users.changes.max-subscribers:100}")
+    private int maxSubscribers = 100;
+
+    @Value("${users.changes.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${users.changes.heartbeat:15s}")
+    private Duration heartbeat = Duration.ofSeconds(15);
+
+    @Value("${users.changes.timeout:30m}")
+    private Duration timeout = Duration.ofMinutes(30);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    public UserChangeFeed(MeterRegistry registry, @Value("${users.changes.capacity:10000}") int capacity) {
+        this.ring = new UserChange[capacity];
+        Gauge.builder("users.changes.subscribers", subscriptions, Set::size)
+                .description("Subscribers connected to the user change feed")
+                .register(registry);
+        this.resets = Counter.builder("users.changes.resets")
+                .description("Subscribers reset because the changes after their sequence are no longer buffered")
+                .register(registry);
+    }
+
+    /**
+     * Append a committed chunk and wake up the waiting subscribers.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersChanged(UsersChangedEvent event) {
+        if (!enabled || event.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            event.inserted().forEach(user -> append(INSERT, user.getId(), user));
+            event.updated().forEach(user -> append(UPDATE, user.getId(), user));
+            event.deletedIds().forEach(id -> append(DELETE, id, null));
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(String type, Long id, User user) {
+        latest++;
+        ring[(int) (latest % ring.length)] = new UserChange(latest, type, id, user);
+    }
+
+    public long latestSequence() {
+        lock.lock();
+        try {
+            return latest;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Up to {@code max} changes after the given sequence, waiting up to {@code wait} for the first one.
+     *
+     * @return The changes in sequence order, empty if none arrived in time, or null if the changes after the
+     * sequence are no longer buffered or the sequence is ahead of the feed
+     */
+    List<UserChange> read(long after, int max, Duration wait) throws InterruptedException {
+        lock.lock();
+        try {
+            long nanos = wait.toNanos();
+            while (latest == after && nanos > 0) {
+                nanos = appended.awaitNanos(nanos);
+            }
+            if (after > latest || after < latest - ring.length) {
+                return null;
+            }
+            int count = (int) Math.min(max, latest - after);
+            List<UserChange> changes = new ArrayList<>(count);
+            for (long sequence = after + 1; sequence <= after + count; sequence++) {
+                changes.add(ring[(int) (sequence % ring.length)]);
+            }
+            return changes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Open a stream of the changes after the given sequence, or of new changes only when it is null.
+     *
+     * @throws FeatureUnavailableException if the feed is disabled or already has users.changes.max-subscribers
+     */
+    public SseEmitter subscribe(Long after) {
+        if (!enabled) {
+            throw new FeatureUnavailableException("Change feed is not enabled");
+        }
+        Subscription subscription = new Subscription(new SseEmitter(timeout.toMillis()));
+        synchronized (subscriptions) {
+            if (subscriptions.size() >= maxSubscribers) {
+                throw new FeatureUnavailableException("Change feed already has " + maxSubscribers + " subscribers");
+            }
+            subscriptions.add(subscription);
+        }
+        long start = after == null ? latestSequence() : after;
+        subscription.emitter.onCompletion(subscription::close);
+        subscription.emitter.onTimeout(subscription::close);
+        subscription.emitter.onError(error -> subscription.close());
+        Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        subscription.thread = builder.name("user-changes-" + subscriptionCount.incrementAndGet())
+                .start(() -> stream(subscription, start));
+        return subscription.emitter;
+    }
+
+    /**
+     * Send changes in batches of users.changes.batch-size until the subscriber disconnects, with a comment every
+     * users.changes.heartbeat without changes so that closed connections are noticed.
+     */
+    private void stream(Subscription subscription, long after) {
+        SseEmitter emitter = subscription.emitter;
+        try {
+            long cursor = after;
+            while (!subscription.closed) {
+                List<UserChange> changes = read(cursor, batchSize, heartbeat);
+                if (changes == null) {
+                    resets.increment();
+                    emitter.send(SseEmitter.event().name(RESET).data(Map.of("sequence", latestSequence())));
+                    emitter.complete();
+                    return;
+                }
+                if (changes.isEmpty()) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+                for (UserChange change : changes) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(change.getSequence()))
+                            .name(change.getType())
+                            .data(change));
+                    cursor = change.getSequence();
+                }
+            }
+        } catch (InterruptedException e) {
+            // Closed while waiting for changes
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the emitter timed out; the container completes the request
+            logger.debug("Change feed subscriber disconnected: {}", e.getMessage());
+        } finally {
+            subscriptions.remove(subscription);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.forEach(subscription -> {
+            subscription.close();
+            subscription.emitter.complete();
+        });
+    }
+
+    private static final class Subscription {
+        private final SseEmitter emitter;
+        private volatile Thread thread;
+        private volatile boolean closed;
+
+        Subscription(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void close() {
+            closed = true;
+            Thread current = thread;
+            if (current != null) {
+                current.interrupt();
+            }
+        }
+    }
+}
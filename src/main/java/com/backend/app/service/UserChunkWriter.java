@@ -0,0 +1,136 @@
+package com.backend.app.service;
+
+import com.backend.app.dao.UserBatchWriter;
+import com.backend.app.dao.UserFingerprintStore;
+import com.backend.app.dto.LoadResult;
+import com.backend.app.entity.User;
+import com.backend.app.event.UsersChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Writes chunks of validated users, comparing each user's content fingerprint with the one stored by the
+ * previous sync so that only new or changed rows are written.
+ */
+@Component
+public class UserChunkWriter {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final UserBatchWriter userBatchWriter;
+    private final UserFingerprintStore userFingerprintStore;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${ingestion.sync.incremental:true}")
+    private boolean incremental;
+
+    @Value("${ingestion.batch-size:1000}")
+    private int batchSize;
+
+    public UserChunkWriter(UserBatchWriter userBatchWriter, UserFingerprintStore userFingerprintStore,
+                           ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher) {
+        this.userBatchWriter = userBatchWriter;
+        this.userFingerprintStore = userFingerprintStore;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Start a sync run. Every user written or confirmed unchanged is stamped with it.
+     */
+    public long beginSyncRun() {
+        return userFingerprintStore.nextSyncRun();
+    }
+
+    /**
+     * Write a chunk in one transaction: new users are inserted, changed users are merged and unchanged
+     * users are only stamped with the current run. With incremental sync disabled every existing user is
+     * rewritten. A {@link UsersChangedEvent} describing the written users is published when anything changed.
+     *
+     * @param users   Valid users of the chunk
+     * @param syncRun Current sync run
+     * @return Inserted, updated and unchanged counts for the chunk
+     */
+    @Transactional
+    public LoadResult write(List<User> users, long syncRun) {
+        // Last occurrence wins when the feed repeats an id within a chunk
+        Map<Long, User> byId = new LinkedHashMap<>(users.size() * 2);
+        users.forEach(user -> byId.put(user.getId(), user));
+
+        Map<Long, Long> existing = userFingerprintStore.findExisting(byId.keySet());
+        Map<Long, Long> fingerprints = new HashMap<>(byId.size() * 2);
+        List<User> inserts = new ArrayList<>();
+        List<User> updates = new ArrayList<>();
+        LoadResult result = new LoadResult();
+
+        for (User user : byId.values()) {
+            long fingerprint = fingerprint(user);
+            fingerprints.put(user.getId(), fingerprint);
+            if (!existing.containsKey(user.getId())) {
+                inserts.add(user);
+            } else if (incremental && Objects.equals(existing.get(user.getId()), fingerprint)) {
+                result.setUnchanged(result.getUnchanged() + 1);
+            } else {
+                updates.add(user);
+            }
+        }
+
+        userBatchWriter.insert(inserts);
+        userBatchWriter.upsert(updates);
+        userFingerprintStore.save(fingerprints, syncRun);
+        UsersChangedEvent event = new UsersChangedEvent(inserts, updates, List.of());
+        if (!event.isEmpty()) {
+            eventPublisher.publishEvent(event);
+        }
+        result.setInserted(inserts.size());
+        result.setUpdated(updates.size());
+        return result;
+    }
+
+    /**
+     * Delete users that earlier syncs wrote but the given run did not see in the feed.
+     *
+     * @param syncRun Completed sync run
+     * @return Number of users deleted
+     */
+    public long deleteMissing(long syncRun) {
+        List<Long> missing = userFingerprintStore.findNotSeenIn(syncRun);
+        long deleted = 0;
+        for (int from = 0; from < missing.size(); from += batchSize) {
+            List<Long> batch = missing.subList(from, Math.min(from + batchSize, missing.size()));
+            deleted += userFingerprintStore.delete(batch);
+            eventPublisher.publishEvent(UsersChangedEvent.deleted(List.copyOf(batch)));
+        }
+        return deleted;
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the user's JSON form, covering the embedded bank, company, crypto and hair.
+     */
+    long fingerprint(User user) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(user);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize user " + user.getId(), e);
+        }
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : json) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
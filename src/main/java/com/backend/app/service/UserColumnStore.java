@@ -0,0 +1,313 @@
+package com.backend.app.service;
+
+import com.backend.app.dao.UserRepository;
+import com.backend.app.dto.PageCursor;
+import com.backend.app.dto.UserFilter;
+import com.backend.app.dto.UserPage;
+import com.backend.app.entity.User;
+import com.backend.app.event.UsersLoadedEvent;
+import com.backend.app.exception.FeatureUnavailableException;
+import com.backend.app.exception.InvalidPageRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Optional read-optimized copy of the filterable users columns for scans such as "age between 30 and 40 and
+ * role admin". Rows are kept in id order: numeric columns as primitive arrays, with NaN or a sentinel for
+ * missing values, and role, gender, blood group and eye color dictionary-encoded with a bitmap of rows per value.
+ * A scan starts from the AND of the value bitmaps and checks the ranges on the primitive columns, stopping once a
+ * page is full; only the users of that page are loaded. The store is an immutable snapshot rebuilt after every
+ * load that changed users; until the first build, filtered scans answer 503.
+ */
+@Component
+public class UserColumnStore {
+    private static final Logger logger = LoggerFactory.getLogger(UserColumnStore.class);
+    private static final String CURSOR_SORT = "filter";
+    /** Age of a row without one; below any age a filter can ask for. */
+    private static final int NO_AGE = Integer.MIN_VALUE;
+    private static final String SELECT_SQL = "SELECT id, age, height, weight, role, gender, blood_group, eye_color "
+            + "FROM users ORDER BY id";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${users.columns.enabled:false}")
+    private boolean enabled;
+
+    @Value("${users.page.max-limit:1000}")
+    private int maxPageLimit = 1000;
+
+    private volatile Snapshot snapshot;
+
+    public UserColumnStore(UserRepository userRepository, JdbcTemplate jdbcTemplate) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * A dictionary-encoded string column: the distinct values and, per value, the rows holding it.
+     */
+    private record Dictionary(Map<String, BitSet> rows) {
+
+        /**
+         * Rows holding any of the values, or null when the column is not filtered.
+         */
+        BitSet rowsOf(List<String> values) {
+            if (values == null || values.isEmpty()) {
+                return null;
+            }
+            BitSet matching = new BitSet();
+            for (String value : values) {
+                BitSet valueRows = rows.get(value);
+                if (valueRows != null) {
+                    matching.or(valueRows);
+                }
+            }
+            return matching;
+        }
+    }
+
+    /**
+     * @param ids        User id per row, ascending
+     * @param ages       Age per row, {@link #NO_AGE} when missing
+     * @param heights    Height per row, NaN when missing
+     * @param weights    Weight per row, NaN when missing
+     */
+    private record Snapshot(long[] ids, int[] ages, double[] heights, double[] weights,
+                            Dictionary role, Dictionary gender, Dictionary bloodGroup, Dictionary eyeColor) {
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * A page of the users matching a filter, ordered by id.
+     *
+     * @param limit  Page size, 1 to users.page.max-limit
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    public UserPage filter(UserFilter filter, int limit, String cursor) {
+        Snapshot current = snapshot;
+        if (!enabled || current == null) {
+            throw new FeatureUnavailableException("Column store is " + (enabled ? "still being built" : "not enabled"));
+        }
+        if (limit < 1 || limit > maxPageLimit) {
+            throw new InvalidPageRequestException("limit must be between 1 and " + maxPageLimit);
+        }
+        Long afterId = cursor == null ? null : PageCursor.decode(cursor, CURSOR_SORT).id();
+
+        long[] page = scan(current, filter, afterId, limit + 1);
+        int size = Math.min(page.length, limit);
+        List<Long> ids = Arrays.stream(page, 0, size).boxed().toList();
+        Map<Long, User> users = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        // The columns are only rebuilt after a load, so an id may outlive its row; the page is then short by that user
+        List<User> items = ids.stream().map(users::get).filter(Objects::nonNull).toList();
+        String nextCursor = page.length > limit ? new PageCursor(CURSOR_SORT, null, page[size - 1]).encode() : null;
+        return new UserPage(items, nextCursor);
+    }
+
+    /**
+     * Ids of up to {@code max} matching rows after the given id, without loading any user.
+     */
+    public long[] filterIds(UserFilter filter, Long afterId, int max) {
+        Snapshot current = snapshot;
+        if (!enabled || current == null) {
+            throw new FeatureUnavailableException("Column store is " + (enabled ? "still being built" : "not enabled"));
+        }
+        return scan(current, filter, afterId, max);
+    }
+
+    private static long[] scan(Snapshot current, UserFilter filter, Long afterId, int max) {
+        long[] ids = current.ids();
+        BitSet candidates = null;
+        for (BitSet rows : new BitSet[]{current.role().rowsOf(filter.getRole()),
+                current.gender().rowsOf(filter.getGender()),
+                current.bloodGroup().rowsOf(filter.getBloodGroup()),
+                current.eyeColor().rowsOf(filter.getEyeColor())}) {
+            if (rows != null) {
+                if (candidates == null) {
+                    candidates = rows;
+                } else {
+                    candidates.and(rows);
+                }
+            }
+        }
+
+        int start = 0;
+        if (afterId != null) {
+            int position = Arrays.binarySearch(ids, afterId);
+            start = position >= 0 ? position + 1 : -(position + 1);
+        }
+        Ranges ranges = new Ranges(current, filter);
+        long[] matches = new long[Math.min(max, Math.min(ids.length, 1024))];
+        int found = 0;
+        if (candidates == null) {
+            for (int row = start; row < ids.length && found < max; row++) {
+                if (ranges.matches(row)) {
+                    matches = add(matches, found++, ids[row], Math.min(max, ids.length));
+                }
+            }
+        } else {
+            for (int row = candidates.nextSetBit(start); row >= 0 && found < max; row = candidates.nextSetBit(row + 1)) {
+                if (ranges.matches(row)) {
+                    matches = add(matches, found++, ids[row], Math.min(max, ids.length));
+                }
+            }
+        }
+        return Arrays.copyOf(matches, found);
+    }
+
+    private static long[] add(long[] matches, int index, long id, int capacity) {
+        if (index == matches.length) {
+            matches = Arrays.copyOf(matches, (int) Math.min((long) index * 2, capacity));
+        }
+        matches[index] = id;
+        return matches;
+    }
+
+    /**
+     * The age, height and weight conditions of a filter over the columns of a snapshot.
+     */
+    private static final class Ranges {
+        private final int[] ages;
+        private final double[] heights;
+        private final double[] weights;
+        private final boolean ageFiltered;
+        private final int minAge;
+        private final int maxAge;
+        private final boolean heightFiltered;
+        private final double minHeight;
+        private final double maxHeight;
+        private final boolean weightFiltered;
+        private final double minWeight;
+        private final double maxWeight;
+
+        Ranges(Snapshot snapshot, UserFilter filter) {
+            ages = snapshot.ages();
+            heights = snapshot.heights();
+            weights = snapshot.weights();
+            ageFiltered = filter.getMinAge() != null || filter.getMaxAge() != null;
+            minAge = filter.getMinAge() == null ? NO_AGE + 1 : Math.max(filter.getMinAge(), NO_AGE + 1);
+            maxAge = filter.getMaxAge() == null ? Integer.MAX_VALUE : filter.getMaxAge();
+            heightFiltered = filter.getMinHeight() != null || filter.getMaxHeight() != null;
+            minHeight = filter.getMinHeight() == null ? Double.NEGATIVE_INFINITY : filter.getMinHeight();
+            maxHeight = filter.getMaxHeight() == null ? Double.POSITIVE_INFINITY : filter.getMaxHeight();
+            weightFiltered = filter.getMinWeight() != null || filter.getMaxWeight() != null;
+            minWeight = filter.getMinWeight() == null ? Double.NEGATIVE_INFINITY : filter.getMinWeight();
+            maxWeight = filter.getMaxWeight() == null ? Double.POSITIVE_INFINITY : filter.getMaxWeight();
+        }
+
+        /**
+         * NaN fails both comparisons, so missing heights and weights never match a range. Unfiltered columns are
+         * not read; the others are compared without a mispredicted branch per condition.
+         */
+        boolean matches(int row) {
+            return (!ageFiltered || ages[row] >= minAge & ages[row] <= maxAge)
+                    & (!heightFiltered || heights[row] >= minHeight & heights[row] <= maxHeight)
+                    & (!weightFiltered || weights[row] >= minWeight & weights[row] <= maxWeight);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @EventListener
+    public void onUsersLoaded(UsersLoadedEvent event) {
+        if (enabled && (snapshot == null || event.hasChanges())) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Read the filterable columns of the whole table and swap in a new snapshot. Readers keep using the previous
+     * snapshot meanwhile, and keep using it when the rebuild fails.
+     */
+    void rebuild() {
+        try {
+            build();
+        } catch (RuntimeException e) {
+            logger.error("Could not build the user column store, keeping the previous one.", e);
+        }
+    }
+
+    private void build() {
+        long startNanos = System.nanoTime();
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        Builder builder = new Builder(count == null ? 0 : count.intValue());
+        jdbcTemplate.query(SELECT_SQL, (RowCallbackHandler) rs -> {
+            builder.add(rs.getLong(1), (Number) rs.getObject(2), (Number) rs.getObject(3), (Number) rs.getObject(4),
+                    rs.getString(5), rs.getString(6), rs.getString(7), rs.getString(8));
+        });
+        snapshot = builder.build();
+        logger.info("Built user column store: {} rows in {} ms.", snapshot.ids().length,
+                (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * Collects rows in id order into growing primitive arrays.
+     */
+    private static final class Builder {
+        private long[] ids;
+        private int[] ages;
+        private double[] heights;
+        private double[] weights;
+        private final List<Map<String, BitSet>> dictionaries = List.of(
+                new HashMap<>(), new HashMap<>(), new HashMap<>(), new HashMap<>());
+        private int size;
+
+        Builder(int expectedRows) {
+            int capacity = Math.max(16, expectedRows);
+            ids = new long[capacity];
+            ages = new int[capacity];
+            heights = new double[capacity];
+            weights = new double[capacity];
+        }
+
+        void add(long id, Number age, Number height, Number weight, String... values) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                ages = Arrays.copyOf(ages, size * 2);
+                heights = Arrays.copyOf(heights, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ids[size] = id;
+            ages[size] = age == null ? NO_AGE : age.intValue();
+            heights[size] = height == null ? Double.NaN : height.doubleValue();
+            weights[size] = weight == null ? Double.NaN : weight.doubleValue();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    dictionaries.get(i).computeIfAbsent(values[i], value -> new BitSet()).set(size);
+                }
+            }
+            size++;
+        }
+
+        Snapshot build() {
+            return new Snapshot(Arrays.copyOf(ids, size), Arrays.copyOf(ages, size),
+                    Arrays.copyOf(heights, size), Arrays.copyOf(weights, size),
+                    new Dictionary(dictionaries.get(0)), new Dictionary(dictionaries.get(1)),
+                    new Dictionary(dictionaries.get(2)), new Dictionary(dictionaries.get(3)));
+        }
+    }
+}
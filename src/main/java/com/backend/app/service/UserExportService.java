@@ -0,0 +1,126 @@
+package com.backend.app.service;
+
+import com.backend.app.dao.UserBatchWriter;
+import com.backend.app.dao.UserRepository;
+import com.backend.app.entity.User;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Streams the whole users table to an output stream. Users are read through a database cursor and detached
+ * as soon as they are written, so memory use does not depend on the table size.
+ */
+@Service
+public class UserExportService {
+    private final UserRepository userRepository;
+    private final ObjectWriter userWriter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${users.export.flush-rows:500}")
+    private int flushRows = 500;
+
+    public UserExportService(UserRepository userRepository, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        // Lines are ended with writeRaw('\n'); Jackson would otherwise put a space before every value after the first
+        this.userWriter = objectMapper.writerFor(User.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator((String) null);
+    }
+
+    /**
+     * Write every user in id order.
+     *
+     * @param format Output format
+     * @param out    Response stream, left open
+     * @return Number of users written
+     */
+    @Transactional(readOnly = true)
+    public long export(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<User> users = userRepository.streamAllByOrderById()) {
+            return switch (format) {
+                case NDJSON -> writeNdjson(users.iterator(), out);
+                case CSV -> writeCsv(users.iterator(), out);
+            };
+        }
+    }
+
+    private long writeNdjson(Iterator<User> users, OutputStream out) throws IOException {
+        long written = 0;
+        try (JsonGenerator generator = userWriter.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (users.hasNext()) {
+                User user = users.next();
+                userWriter.writeValue(generator, user);
+                generator.writeRaw('\n');
+                entityManager.detach(user);
+                // Flushing the first row gets the first byte out without waiting for a full buffer
+                if (++written == 1 || written % Math.max(1, flushRows) == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        return written;
+    }
+
+    private long writeCsv(Iterator<User> users, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", UserBatchWriter.COLUMNS.keySet()));
+        writer.write("\r\n");
+        writer.flush();
+        long written = 0;
+        while (users.hasNext()) {
+            User user = users.next();
+            boolean first = true;
+            for (Function<User, Object> column : UserBatchWriter.COLUMNS.values()) {
+                if (!first) {
+                    writer.write(',');
+                }
+                first = false;
+                writeCsvValue(writer, column.apply(user));
+            }
+            writer.write("\r\n");
+            entityManager.detach(user);
+            if (++written % Math.max(1, flushRows) == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return written;
+    }
+
+    /**
+     * RFC 4180 quoting: values containing a separator, quote or line break are quoted and quotes doubled.
+     */
+    static void writeCsvValue(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,480 @@
+package com.backend.app.service;
+
+import com.backend.app.dao.UserRepository;
+import com.backend.app.dto.NearbyUser;
+import com.backend.app.dto.UserAreaResult;
+import com.backend.app.entity.Address;
+import com.backend.app.entity.Company;
+import com.backend.app.entity.Coordinates;
+import com.backend.app.entity.User;
+import com.backend.app.event.UsersChangedEvent;
+import com.backend.app.exception.FeatureUnavailableException;
+import com.backend.app.exception.InvalidGeoQueryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Optional in-memory grid over the company coordinates of every user, for radius and bounding-box queries.
+ * The world is cut into cells of cell-degrees by cell-degrees and each non-empty cell holds the ids and
+ * coordinates of its users, so a query only reads the cells it overlaps and checks the points of the cells on
+ * its edge. The index is built at startup and then updated with each committed chunk of a load.
+ */
+@Component
+public class UserGeoIndex {
+    private static final Logger logger = LoggerFactory.getLogger(UserGeoIndex.class);
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final String SELECT_SQL = "SELECT id, lat, lng FROM users WHERE lat IS NOT NULL AND lng IS NOT NULL";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Cell> cells = new HashMap<>();
+    private final Map<Long, Cell> cellOfUser = new HashMap<>();
+
+    @Value("${users.geo.enabled:false}")
+    private boolean enabled;
+
+    @Value("${users.geo.cell-degrees:0.25}")
+    private double cellDegrees = 0.25;
+
+    @Value("${users.geo.max-limit:1000}")
+    private int maxLimit = 1000;
+
+    @Value("${users.geo.max-radius-km:2000}")
+    private double maxRadiusKm = 2000;
+
+    private volatile boolean ready;
+
+    public UserGeoIndex(UserRepository userRepository, JdbcTemplate jdbcTemplate) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * The users of one grid cell, with their coordinates in parallel arrays. Besides latitude and longitude each
+     * point is kept as a unit vector, so radius checks compare straight-line distances without trigonometry.
+     */
+    private static final class Cell {
+        private final int row;
+        private final int column;
+        private long[] ids = new long[4];
+        private double[] lats = new double[4];
+        private double[] lngs = new double[4];
+        private double[] xs = new double[4];
+        private double[] ys = new double[4];
+        private double[] zs = new double[4];
+        private int size;
+
+        Cell(int row, int column) {
+            this.row = row;
+            this.column = column;
+        }
+
+        void add(long id, double lat, double lng) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                lats = Arrays.copyOf(lats, size * 2);
+                lngs = Arrays.copyOf(lngs, size * 2);
+                xs = Arrays.copyOf(xs, size * 2);
+                ys = Arrays.copyOf(ys, size * 2);
+                zs = Arrays.copyOf(zs, size * 2);
+            }
+            double[] vector = unitVector(lat, lng);
+            ids[size] = id;
+            lats[size] = lat;
+            lngs[size] = lng;
+            xs[size] = vector[0];
+            ys[size] = vector[1];
+            zs[size] = vector[2];
+            size++;
+        }
+
+        void remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    size--;
+                    ids[i] = ids[size];
+                    lats[i] = lats[size];
+                    lngs[i] = lngs[size];
+                    xs[i] = xs[size];
+                    ys[i] = ys[size];
+                    zs[i] = zs[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * A user within the radius of a query and its distance from the centre.
+     */
+    public record Hit(long id, double distanceKm) {
+    }
+
+    /**
+     * A user within the radius, by squared chord length until the final top is known.
+     */
+    private record Candidate(long id, double chordSquared) {
+    }
+
+    /**
+     * The users in a bounding box: how many there are and the ids of the first ones.
+     */
+    public record Area(long total, List<Long> ids) {
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Users whose company lies within a radius of a point, nearest first and ties by id.
+     *
+     * @param radiusKm Great-circle distance, up to users.geo.max-radius-km
+     * @param limit    Most users to return, 1 to users.geo.max-limit
+     */
+    public List<NearbyUser> near(double lat, double lng, double radiusKm, int limit) {
+        List<Hit> hits = nearIds(lat, lng, radiusKm, limit);
+        Map<Long, User> users = load(hits.stream().map(Hit::id).toList());
+        // The grid is read before the rows are loaded; a hit whose user was deleted in between has no row and is
+        // dropped rather than returned as a distance without a user
+        return hits.stream()
+                .filter(hit -> users.containsKey(hit.id()))
+                .map(hit -> new NearbyUser(users.get(hit.id()), hit.distanceKm()))
+                .toList();
+    }
+
+    /**
+     * Users whose company lies in a bounding box, in id order. A box with minLng greater than maxLng crosses the
+     * antimeridian.
+     *
+     * @param limit Most users to return, 1 to users.geo.max-limit; the total counts all of them
+     */
+    public UserAreaResult within(double minLat, double minLng, double maxLat, double maxLng, int limit) {
+        Area area = withinIds(minLat, minLng, maxLat, maxLng, limit);
+        Map<Long, User> users = load(area.ids());
+        return new UserAreaResult(area.total(), area.ids().stream().map(users::get).filter(Objects::nonNull).toList());
+    }
+
+    /**
+     * Ids and distances of the users {@link #near} returns, without loading them.
+     */
+    public List<Hit> nearIds(double lat, double lng, double radiusKm, int limit) {
+        checkReady();
+        checkPoint("lat", lat, 90);
+        checkPoint("lng", lng, 180);
+        checkLimit(limit);
+        if (!(radiusKm > 0 && radiusKm <= maxRadiusKm)) {
+            throw new InvalidGeoQueryException("radiusKm must be greater than 0 and at most " + maxRadiusKm);
+        }
+
+        double latDelta = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+        double minLat = lat - latDelta;
+        double maxLat = lat + latDelta;
+        // The circle's widest longitude offset; a circle around a pole covers every longitude
+        double lngDelta = 180;
+        if (minLat > -90 && maxLat < 90) {
+            lngDelta = Math.toDegrees(Math.asin(Math.sin(radiusKm / EARTH_RADIUS_KM) / Math.cos(Math.toRadians(lat))));
+        }
+
+        // Squared chord lengths between unit vectors grow with the great-circle distance, so compare those
+        double[] centre = unitVector(lat, lng);
+        double maxChord = 2 * Math.sin(radiusKm / EARTH_RADIUS_KM / 2);
+        double bound = maxChord * maxChord;
+
+        Comparator<Candidate> ranking = Comparator.comparingDouble(Candidate::chordSquared)
+                .thenComparingLong(Candidate::id);
+        PriorityQueue<Candidate> best = new PriorityQueue<>(ranking.reversed());
+        lock.readLock().lock();
+        try {
+            for (Cell cell : overlapping(minLat, maxLat, lng - lngDelta, lng + lngDelta)) {
+                for (int i = 0; i < cell.size; i++) {
+                    double dx = cell.xs[i] - centre[0];
+                    double dy = cell.ys[i] - centre[1];
+                    double dz = cell.zs[i] - centre[2];
+                    double chordSquared = dx * dx + dy * dy + dz * dz;
+                    if (chordSquared > bound) {
+                        continue;
+                    }
+                    Candidate candidate = new Candidate(cell.ids[i], chordSquared);
+                    if (best.size() < limit) {
+                        best.add(candidate);
+                    } else if (ranking.compare(candidate, best.peek()) < 0) {
+                        best.poll();
+                        best.add(candidate);
+                    }
+                    if (best.size() == limit) {
+                        // Only users at most as far as the current last one can still make the top
+                        bound = best.peek().chordSquared();
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Candidate> top = new ArrayList<>(best);
+        top.sort(ranking);
+        return top.stream().map(candidate -> new Hit(candidate.id(), arcKm(candidate.chordSquared()))).toList();
+    }
+
+    /**
+     * Total and ids of the users {@link #within} returns, without loading them.
+     */
+    public Area withinIds(double minLat, double minLng, double maxLat, double maxLng, int limit) {
+        checkReady();
+        checkPoint("minLat", minLat, 90);
+        checkPoint("maxLat", maxLat, 90);
+        checkPoint("minLng", minLng, 180);
+        checkPoint("maxLng", maxLng, 180);
+        checkLimit(limit);
+        if (minLat > maxLat) {
+            throw new InvalidGeoQueryException("minLat must not be greater than maxLat");
+        }
+        double eastLng = minLng <= maxLng ? maxLng : maxLng + 360;
+
+        long total = 0;
+        PriorityQueue<Long> first = new PriorityQueue<>(Comparator.reverseOrder());
+        lock.readLock().lock();
+        try {
+            for (Cell cell : overlapping(minLat, maxLat, minLng, eastLng)) {
+                boolean inside = cellLat(cell.row) >= minLat && cellLat(cell.row + 1) <= maxLat
+                        && contains(minLng, eastLng, cellLng(cell.column))
+                        && contains(minLng, eastLng, cellLng(cell.column + 1));
+                for (int i = 0; i < cell.size; i++) {
+                    if (inside || cell.lats[i] >= minLat && cell.lats[i] <= maxLat
+                            && contains(minLng, eastLng, cell.lngs[i])) {
+                        total++;
+                        if (first.size() < limit || cell.ids[i] < first.peek()) {
+                            first.add(cell.ids[i]);
+                            if (first.size() > limit) {
+                                first.poll();
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Long> ids = new ArrayList<>(first);
+        ids.sort(Comparator.naturalOrder());
+        return new Area(total, ids);
+    }
+
+    /**
+     * Great-circle distance between two points in kilometres.
+     */
+    static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double[] a = unitVector(lat1, lng1);
+        double[] b = unitVector(lat2, lng2);
+        double dx = a[0] - b[0];
+        double dy = a[1] - b[1];
+        double dz = a[2] - b[2];
+        return arcKm(dx * dx + dy * dy + dz * dz);
+    }
+
+    /**
+     * The point on the unit sphere at a latitude and longitude.
+     */
+    private static double[] unitVector(double lat, double lng) {
+        double latRadians = Math.toRadians(lat);
+        double lngRadians = Math.toRadians(lng);
+        return new double[]{Math.cos(latRadians) * Math.cos(lngRadians), Math.cos(latRadians) * Math.sin(lngRadians),
+                Math.sin(latRadians)};
+    }
+
+    /**
+     * Great-circle distance in kilometres of a squared chord length on the unit sphere, as in the haversine formula.
+     */
+    private static double arcKm(double chordSquared) {
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(chordSquared) / 2));
+    }
+
+    /**
+     * Non-empty cells overlapping a latitude range and a longitude range that may run past 180 to cross the
+     * antimeridian. When the range spans more cells than are in use, the cells in use are filtered instead.
+     */
+    private List<Cell> overlapping(double minLat, double maxLat, double westLng, double eastLng) {
+        int columns = columns();
+        int firstRow = row(Math.max(-90, minLat));
+        int lastRow = row(Math.min(90, maxLat));
+        int firstColumn = (int) Math.floor((westLng + 180) / cellDegrees);
+        int lastColumn = (int) Math.floor((eastLng + 180) / cellDegrees);
+        if (lastColumn - firstColumn + 1 >= columns) {
+            firstColumn = 0;
+            lastColumn = columns - 1;
+        }
+        int columnCount = lastColumn - firstColumn + 1;
+
+        List<Cell> overlapping = new ArrayList<>();
+        if ((long) (lastRow - firstRow + 1) * columnCount > cells.size()) {
+            for (Cell cell : cells.values()) {
+                int offset = Math.floorMod(cell.column - firstColumn, columns);
+                if (cell.row >= firstRow && cell.row <= lastRow && offset < columnCount) {
+                    overlapping.add(cell);
+                }
+            }
+            return overlapping;
+        }
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                Cell cell = cells.get(row * columns + Math.floorMod(column, columns));
+                if (cell != null) {
+                    overlapping.add(cell);
+                }
+            }
+        }
+        return overlapping;
+    }
+
+    /**
+     * Whether a longitude lies between a west and an east bound, where the east bound may run past 180.
+     */
+    private static boolean contains(double westLng, double eastLng, double lng) {
+        return lng >= westLng && lng <= eastLng || lng + 360 >= westLng && lng + 360 <= eastLng;
+    }
+
+    private int rows() {
+        return (int) Math.ceil(180 / cellDegrees);
+    }
+
+    private int columns() {
+        return (int) Math.ceil(360 / cellDegrees);
+    }
+
+    private int row(double lat) {
+        return Math.min(rows() - 1, (int) Math.floor((lat + 90) / cellDegrees));
+    }
+
+    private int column(double lng) {
+        return Math.floorMod((int) Math.floor((lng + 180) / cellDegrees), columns());
+    }
+
+    private double cellLat(int row) {
+        return Math.min(90, -90 + row * cellDegrees);
+    }
+
+    private double cellLng(int column) {
+        return Math.min(180, -180 + column * cellDegrees);
+    }
+
+    private void checkReady() {
+        if (!enabled || !ready) {
+            throw new FeatureUnavailableException("Geo index is " + (enabled ? "still being built" : "not enabled"));
+        }
+    }
+
+    private void checkLimit(int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new InvalidGeoQueryException("limit must be between 1 and " + maxLimit);
+        }
+    }
+
+    private static void checkPoint(String name, double value, double bound) {
+        if (!(value >= -bound && value <= bound)) {
+            throw new InvalidGeoQueryException(name + " must be between " + -bound + " and " + bound);
+        }
+    }
+
+    private Map<Long, User> load(List<Long> ids) {
+        return userRepository.findAllById(ids).stream().collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Move the users of a committed chunk to the cells of their current company coordinates. Users that lost their
+     * coordinates or were deleted leave the grid. A chunk committed during {@link #rebuild} blocks on the write lock
+     * and moves its users after the table scan.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersChanged(UsersChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            event.inserted().forEach(this::put);
+            event.updated().forEach(this::put);
+            event.deletedIds().forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Index every user in the table that has company coordinates. Queries are refused until the first build
+     * completes.
+     */
+    void rebuild() {
+        long startNanos = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            cellOfUser.clear();
+            jdbcTemplate.query(SELECT_SQL,
+                    (RowCallbackHandler) rs -> add(rs.getLong(1), rs.getDouble(2), rs.getDouble(3)));
+            ready = true;
+            logger.info("Built user geo index: {} users in {} cells in {} ms.",
+                    cellOfUser.size(), cells.size(), (System.nanoTime() - startNanos) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(User user) {
+        remove(user.getId());
+        Optional<Coordinates> coordinates = Optional.ofNullable(user.getCompany())
+                .map(Company::getAddress)
+                .map(Address::getCoordinates)
+                .filter(point -> point.getLat() != null && point.getLng() != null);
+        coordinates.ifPresent(point -> add(user.getId(), point.getLat(), point.getLng()));
+    }
+
+    private void add(long id, double lat, double lng) {
+        if (!(lat >= -90 && lat <= 90 && lng >= -180 && lng <= 180)) {
+            return;
+        }
+        int row = row(lat);
+        int column = column(lng);
+        Cell cell = cells.computeIfAbsent(row * columns() + column, key -> new Cell(row, column));
+        cell.add(id, lat, lng);
+        cellOfUser.put(id, cell);
+    }
+
+    private void remove(long id) {
+        Cell cell = cellOfUser.remove(id);
+        if (cell != null) {
+            cell.remove(id);
+            if (cell.size == 0) {
+                cells.remove(cell.row * columns() + cell.column);
+            }
+        }
+    }
+}
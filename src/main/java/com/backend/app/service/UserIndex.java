@@ -0,0 +1,151 @@
+package com.backend.app.service;
+
+import com.backend.app.dao.UserRepository;
+import com.backend.app.entity.User;
+import com.backend.app.event.UsersLoadedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-memory copy of the users table with a role postings list and an age-sorted order, so the
+ * role and sort endpoints can be answered without a query. The index is an immutable snapshot rebuilt
+ * after every load that changed users; until the first build it reports not ready and callers use the database.
+ */
+@Component
+public class UserIndex {
+    private static final Logger logger = LoggerFactory.getLogger(UserIndex.class);
+
+    /** Same order as the database: missing ages first, ties by id. */
+    private static final Comparator<User> AGE_ORDER = Comparator
+            .comparing(User::getAge, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(User::getId);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${users.index.enabled:false}")
+    private boolean enabled;
+
+    private volatile Snapshot snapshot;
+
+    public UserIndex(UserRepository userRepository, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * @param users   Every user, in id order
+     * @param byRole  Role to positions in {@code users}, ascending
+     * @param byAge   Positions in {@code users} in ascending age order
+     */
+    private record Snapshot(User[] users, Map<String, int[]> byRole, int[] byAge) {
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Users with the given role, in id order.
+     *
+     * @return The users, or empty when the index is not built
+     */
+    public Optional<List<User>> findByRole(String role) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Optional.empty();
+        }
+        int[] postings = current.byRole().getOrDefault(role, new int[0]);
+        return Optional.of(collect(current, IntStream.of(postings)));
+    }
+
+    /**
+     * All users sorted by age. Descending order is the exact reverse of ascending, so missing ages come last.
+     *
+     * @return The users, or empty when the index is not built
+     */
+    public Optional<List<User>> findAllSortedByAge(boolean ascending) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Optional.empty();
+        }
+        int[] byAge = current.byAge();
+        IntStream positions = ascending
+                ? IntStream.of(byAge)
+                : IntStream.range(0, byAge.length).map(i -> byAge[byAge.length - 1 - i]);
+        return Optional.of(collect(current, positions));
+    }
+
+    private static List<User> collect(Snapshot current, IntStream positions) {
+        return positions.mapToObj(position -> current.users()[position]).toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @EventListener
+    public void onUsersLoaded(UsersLoadedEvent event) {
+        if (enabled && (snapshot == null || event.hasChanges())) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Read the whole table and swap in a new snapshot. Readers keep using the previous snapshot meanwhile,
+     * and keep using it when the rebuild fails.
+     */
+    void rebuild() {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> build());
+        } catch (RuntimeException e) {
+            logger.error("Could not build the in-memory user index, keeping the previous one.", e);
+        }
+    }
+
+    /**
+     * Must run in a transaction for the streamed read.
+     */
+    private void build() {
+        long startNanos = System.nanoTime();
+        User[] users;
+        try (Stream<User> stream = userRepository.streamAllByOrderById()) {
+            users = stream.toArray(User[]::new);
+        }
+
+        Map<String, List<Integer>> roles = new HashMap<>();
+        for (int i = 0; i < users.length; i++) {
+            roles.computeIfAbsent(users[i].getRole(), role -> new ArrayList<>()).add(i);
+        }
+        Map<String, int[]> byRole = new HashMap<>(roles.size() * 2);
+        roles.forEach((role, positions) -> byRole.put(role, positions.stream().mapToInt(Integer::intValue).toArray()));
+
+        int[] byAge = IntStream.range(0, users.length).boxed()
+                .sorted(Comparator.comparing(position -> users[position], AGE_ORDER))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        snapshot = new Snapshot(users, byRole, byAge);
+        logger.info("Built in-memory user index: {} users, {} roles in {} ms.",
+                users.length, byRole.size(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+}
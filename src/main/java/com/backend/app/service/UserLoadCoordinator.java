@@ -0,0 +1,108 @@
+package com.backend.app.service;
+
+import com.backend.app.dto.LoadResult;
+import com.backend.app.event.UsersLoadedEvent;
+import com.backend.app.exception.ExternalApiException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs at most one load at a time. Callers arriving while a load is in progress wait for it and get its
+ * result instead of starting another one, and within the minimum refresh interval after a completed load
+ * callers get that load's result straight away. A completed load publishes {@link UsersLoadedEvent} once the
+ * resilience-wrapped call has returned, so listener work neither holds the bulkhead nor fails the load.
+ */
+@Component
+public class UserLoadCoordinator {
+    private static final Logger logger = LoggerFactory.getLogger(UserLoadCoordinator.class);
+
+    private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicReference<CompletableFuture<LoadResult>> inFlight = new AtomicReference<>();
+
+    @Value("${ingestion.load.min-interval:0s}")
+    private Duration minInterval = Duration.ZERO;
+
+    private volatile LoadResult lastCompleted;
+    private volatile long lastCompletedNanos;
+
+    public UserLoadCoordinator(UserService userService, ApplicationEventPublisher eventPublisher) {
+        this.userService = userService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Load users, joining a load already in progress or reusing one that completed within the minimum interval.
+     *
+     * @return The result of the load this call ran, joined or reused
+     */
+    public LoadResult load() throws ExternalApiException {
+        LoadResult recent = recentResult();
+        if (recent != null) {
+            logger.info("Skipping load: the last load completed less than {} ago.", minInterval);
+            return recent;
+        }
+
+        CompletableFuture<LoadResult> own = new CompletableFuture<>();
+        CompletableFuture<LoadResult> running = inFlight.compareAndExchange(null, own);
+        if (running != null) {
+            logger.info("Joining the load already in progress.");
+            return join(running);
+        }
+
+        try {
+            // A load may have completed between the check above and taking the slot
+            recent = recentResult();
+            LoadResult result = recent != null ? recent : userService.loadUsers();
+            if (recent == null && LoadResult.COMPLETED.equals(result.getStatus())) {
+                lastCompleted = result;
+                lastCompletedNanos = System.nanoTime();
+                // Joined callers wait for the listeners too, so they read the rebuilt state
+                eventPublisher.publishEvent(new UsersLoadedEvent(result));
+            }
+            own.complete(result);
+            return result;
+        } catch (ExternalApiException | RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.set(null);
+        }
+    }
+
+    /**
+     * Failed loads are not reused, so a retry can start right away.
+     */
+    private LoadResult recentResult() {
+        LoadResult last = lastCompleted;
+        if (last == null || minInterval.isZero() || minInterval.isNegative()) {
+            return null;
+        }
+        return System.nanoTime() - lastCompletedNanos < minInterval.toNanos() ? last : null;
+    }
+
+    private static LoadResult join(CompletableFuture<LoadResult> running) throws ExternalApiException {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalApiException("Interrupted while waiting for the load in progress.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ExternalApiException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ExternalApiException("The load in progress failed.", e.getCause());
+        }
+    }
+}
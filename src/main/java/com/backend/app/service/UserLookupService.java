@@ -0,0 +1,137 @@
+package com.backend.app.service;
+
+import com.backend.app.dao.UserRepository;
+import com.backend.app.dto.UserLookupResult;
+import com.backend.app.entity.User;
+import com.backend.app.exception.InvalidLookupRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Looks up many users by id or SSN in one call. Keys are split into ids and SSNs without parsing exceptions,
+ * answered from the lookup caches where possible and the rest resolved with one IN query per key type. Results
+ * and misses are cached the same way as the single lookups, so both paths share the caches.
+ */
+@Service
+public class UserLookupService {
+    private static final String MAX_ID = String.valueOf(Long.MAX_VALUE);
+
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+
+    @Value("${users.lookup.max-keys:1000}")
+    private int maxKeys = 1000;
+
+    public UserLookupService(UserRepository userRepository, CacheManager cacheManager) {
+        this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Find the users for a mixed list of ids and SSNs. Duplicate keys are looked up once and a user matched by
+     * both its id and its SSN is returned once.
+     *
+     * @param keys Ids and SSNs, at most users.lookup.max-keys
+     * @return The users found and the keys that matched none
+     */
+    public UserLookupResult lookup(List<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            throw new InvalidLookupRequestException("At least one id or SSN is required");
+        }
+        if (keys.size() > maxKeys) {
+            throw new InvalidLookupRequestException("At most " + maxKeys + " ids or SSNs can be looked up at once");
+        }
+
+        Set<String> distinct = new LinkedHashSet<>(keys);
+        Map<Long, String> ids = new LinkedHashMap<>();
+        List<String> ssns = new ArrayList<>();
+        for (String key : distinct) {
+            Long id = parseId(key);
+            if (id != null) {
+                ids.put(id, key);
+            } else if (key != null) {
+                ssns.add(key);
+            }
+        }
+
+        Map<Long, User> byId = resolve(UserRepository.USERS_BY_ID_CACHE, ids.keySet(),
+                userRepository::findAllById, User::getId);
+        Map<String, User> bySsn = resolve(UserRepository.USERS_BY_SSN_CACHE, ssns,
+                userRepository::findBySsnIn, User::getSsn);
+
+        Map<Long, User> users = new LinkedHashMap<>();
+        List<String> notFound = new ArrayList<>();
+        for (String key : distinct) {
+            Long id = parseId(key);
+            User user = id != null ? byId.get(id) : bySsn.get(key);
+            if (user != null) {
+                users.putIfAbsent(user.getId(), user);
+            } else {
+                notFound.add(key);
+            }
+        }
+        return new UserLookupResult(new ArrayList<>(users.values()), notFound);
+    }
+
+    /**
+     * The id a key stands for, or null when it is not a plain non-negative number within the range of a long
+     * and so is treated as an SSN.
+     */
+    static Long parseId(String key) {
+        if (key == null || key.isEmpty() || key.length() > MAX_ID.length()) {
+            return null;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+        }
+        if (key.length() == MAX_ID.length() && key.compareTo(MAX_ID) > 0) {
+            return null;
+        }
+        return Long.parseLong(key);
+    }
+
+    /**
+     * Answer the keys from the cache, query the misses in one go and cache what the query found and did not find.
+     */
+    private <K> Map<K, User> resolve(String cacheName, Collection<K> keys, Function<List<K>, List<User>> query,
+                                     Function<User, K> keyOf) {
+        Map<K, User> found = new HashMap<>();
+        if (keys.isEmpty()) {
+            return found;
+        }
+        Cache cache = cacheManager.getCache(cacheName);
+        List<K> misses = new ArrayList<>();
+        for (K key : keys) {
+            Cache.ValueWrapper cached = cache != null ? cache.get(key) : null;
+            if (cached == null) {
+                misses.add(key);
+            } else if (cached.get() instanceof User user) {
+                found.put(key, user);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (User user : query.apply(misses)) {
+                found.put(keyOf.apply(user), user);
+            }
+            if (cache != null) {
+                misses.forEach(key -> cache.put(key, found.get(key)));
+            }
+        }
+        return found;
+    }
+}
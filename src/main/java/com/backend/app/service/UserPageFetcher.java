@@ -0,0 +1,228 @@
+package com.backend.app.service;
+
+import com.backend.app.dto.UsersResponse;
+import com.backend.app.entity.User;
+import com.backend.app.exception.ExternalApiException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Fetches pages of users from the external API using its limit/skip pagination.
+ * The response body is read with Jackson's streaming parser so only one page is held in memory per request.
+ * Pages after the first can be fetched concurrently, bounded by the userApiBulkhead limits.
+ */
+@Component
+public class UserPageFetcher {
+    private static final Logger logger = LoggerFactory.getLogger(UserPageFetcher.class);
+    public static final String BULKHEAD_NAME = "userApiBulkhead";
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final BulkheadRegistry bulkheadRegistry;
+
+    @Value("${external.api.fetch-concurrency:4}")
+    private int fetchConcurrency;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    public UserPageFetcher(RestTemplate restTemplate, ObjectMapper objectMapper, BulkheadRegistry bulkheadRegistry) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.bulkheadRegistry = bulkheadRegistry;
+    }
+
+    /**
+     * Callback receiving each non-empty page on the calling thread.
+     */
+    @FunctionalInterface
+    public interface PageHandler {
+        void handle(UsersResponse page) throws ExternalApiException;
+    }
+
+    /**
+     * Fetch every page and hand it to the handler. The first page is fetched alone to learn the total;
+     * the remaining pages are requested concurrently and delivered in completion order.
+     *
+     * @param baseUrl  External API url
+     * @param pageSize Page size
+     * @param handler  Receives each page on the calling thread
+     * @return Number of users handed to the handler
+     */
+    public long fetchAll(String baseUrl, int pageSize, PageHandler handler) throws ExternalApiException {
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(BULKHEAD_NAME);
+        UsersResponse first = bulkhead.executeSupplier(() -> fetchPage(baseUrl, 0, pageSize));
+        if (isEmpty(first)) {
+            return 0;
+        }
+        handler.handle(first);
+        long handled = first.getUsers().size();
+        int step = first.getUsers().size();
+        Integer total = first.getTotal();
+
+        // The load itself holds one bulkhead permit, the page requests share the rest
+        int workers = Math.min(fetchConcurrency, bulkhead.getBulkheadConfig().getMaxConcurrentCalls() - 1);
+        if (total == null || workers <= 1) {
+            return handled + fetchSequentially(bulkhead, baseUrl, step, pageSize, handler);
+        }
+        return handled + fetchConcurrently(bulkhead, baseUrl, step, total, pageSize, workers, handler);
+    }
+
+    private long fetchSequentially(Bulkhead bulkhead, String baseUrl, int skip, int pageSize, PageHandler handler)
+            throws ExternalApiException {
+        long handled = 0;
+        Integer total;
+        do {
+            int offset = skip;
+            UsersResponse page = bulkhead.executeSupplier(() -> fetchPage(baseUrl, offset, pageSize));
+            if (isEmpty(page)) {
+                break;
+            }
+            handler.handle(page);
+            handled += page.getUsers().size();
+            skip += page.getUsers().size();
+            total = page.getTotal();
+        } while (total == null || skip < total);
+        return handled;
+    }
+
+    /**
+     * Keep up to {@code workers} requests in flight. Fetched pages go through a queue of the same size,
+     * so fetchers block instead of buffering pages when the handler falls behind.
+     */
+    private long fetchConcurrently(Bulkhead bulkhead, String baseUrl, int step, int total, int pageSize, int workers,
+                                   PageHandler handler) throws ExternalApiException {
+        BlockingQueue<FetchedPage> fetched = new ArrayBlockingQueue<>(workers);
+        // Still a fixed pool with virtual threads: the worker count is what bounds the in-flight requests
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("user-page-fetch-", 1).factory()
+                : new CustomizableThreadFactory("user-page-fetch-");
+        ExecutorService executor = Executors.newFixedThreadPool(workers, threadFactory);
+        long handled = 0;
+        try {
+            int pages = 0;
+            for (int skip = step; skip < total; skip += step) {
+                int offset = skip;
+                executor.submit(() -> {
+                    FetchedPage result;
+                    try {
+                        result = new FetchedPage(offset, bulkhead.executeSupplier(() -> fetchPage(baseUrl, offset, pageSize)), null);
+                    } catch (RuntimeException e) {
+                        result = new FetchedPage(offset, null, e);
+                    }
+                    fetched.put(result);
+                    return null;
+                });
+                pages++;
+            }
+            logger.info("Fetching {} more pages with {} concurrent requests.", pages, workers);
+
+            for (int i = 0; i < pages; i++) {
+                FetchedPage result = fetched.take();
+                if (result.error() != null) {
+                    throw new ExternalApiException("Failed to fetch users page at skip " + result.skip() + ".", result.error());
+                }
+                if (!isEmpty(result.page())) {
+                    handler.handle(result.page());
+                    handled += result.page().getUsers().size();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalApiException("Interrupted while fetching users pages.", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return handled;
+    }
+
+    private static boolean isEmpty(UsersResponse page) {
+        return page == null || page.getUsers() == null || page.getUsers().isEmpty();
+    }
+
+    private record FetchedPage(int skip, UsersResponse page, RuntimeException error) {
+    }
+
+    /**
+     * Fetch one page of users.
+     *
+     * @param baseUrl External API url
+     * @param skip    Number of users to skip
+     * @param limit   Page size
+     * @return The page, never null
+     */
+    public UsersResponse fetchPage(String baseUrl, int skip, int limit) {
+        URI uri = UriComponentsBuilder.fromUriString(baseUrl)
+                .queryParam("limit", limit)
+                .queryParam("skip", skip)
+                .build()
+                .toUri();
+        UsersResponse page = restTemplate.execute(uri, HttpMethod.GET,
+                request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)),
+                this::readPage);
+        return page != null ? page : new UsersResponse();
+    }
+
+    /**
+     * Parse a page token by token, binding each element of the "users" array on its own.
+     */
+    UsersResponse readPage(ClientHttpResponse response) throws IOException {
+        UsersResponse page = new UsersResponse();
+        try (JsonParser parser = objectMapper.getFactory().createParser(response.getBody())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object from the external API.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "users" -> page.setUsers(readUsers(parser, value));
+                    case "total" -> page.setTotal(readInt(parser, value));
+                    case "skip" -> page.setSkip(readInt(parser, value));
+                    case "limit" -> page.setLimit(readInt(parser, value));
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        return page;
+    }
+
+    private List<User> readUsers(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        List<User> users = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            users.add(objectMapper.readValue(parser, User.class));
+        }
+        return users;
+    }
+
+    private Integer readInt(JsonParser parser, JsonToken token) throws IOException {
+        return token == JsonToken.VALUE_NUMBER_INT ? parser.getIntValue() : null;
+    }
+}
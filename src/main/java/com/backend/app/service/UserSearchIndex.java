@@ -0,0 +1,518 @@
+package com.backend.app.service;
+
+import com.backend.app.dao.UserRepository;
+import com.backend.app.entity.User;
+import com.backend.app.event.UsersChangedEvent;
+import com.backend.app.exception.FeatureUnavailableException;
+import com.backend.app.exception.InvalidSearchRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Optional in-memory search over first, last and maiden name, username and email. Field values are split into
+ * lower-case words without accents, and a sorted dictionary maps each word to the ids of the users it occurs in.
+ * A query word matches a dictionary word that equals it, starts with it or, from fuzzy.min-length letters on,
+ * is within one typo of it or of one of its prefixes. Typos are found by looking up every one-edit variant of the
+ * query word in the dictionary, so they cost no extra memory. The index is built at startup and then updated
+ * with each committed chunk of a load.
+ */
+@Component
+public class UserSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchIndex.class);
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789";
+    private static final int MAX_QUERY_WORDS = 8;
+    private static final String SELECT_SQL = "SELECT id, first_name, last_name, maiden_name, username, email FROM users";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Postings> dictionary = new TreeMap<>();
+    private final Map<Long, String[]> userWords = new HashMap<>();
+
+    @Value("${users.search.enabled:false}")
+    private boolean enabled;
+
+    @Value("${users.search.max-limit:100}")
+    private int maxLimit = 100;
+
+    @Value("${users.search.max-expansions:200}")
+    private int maxExpansions = 200;
+
+    @Value("${users.search.fuzzy.min-length:4}")
+    private int fuzzyMinLength = 4;
+
+    private volatile boolean ready;
+
+    public UserSearchIndex(UserRepository userRepository, JdbcTemplate jdbcTemplate) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Ids of the users a dictionary word occurs in, ascending.
+     */
+    private static final class Postings {
+        private long[] ids = new long[2];
+        private int size;
+
+        void add(long id) {
+            int position = size == 0 || ids[size - 1] < id ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -(position + 1);
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                size--;
+            }
+        }
+    }
+
+    /**
+     * A dictionary word matched by a query word, and how well it matched.
+     */
+    private record Match(String word, Postings postings, double score) {
+    }
+
+    /**
+     * A query word checked per user, with the scores of the dictionary words it matched. When the expansion cap
+     * cut its completions short, the words it did not reach are checked for being completions directly.
+     */
+    private record OtherWord(String query, Map<String, Double> scores, boolean complete) {
+    }
+
+    /**
+     * Receives the users of a query word's matches; returns false to stop.
+     */
+    @FunctionalInterface
+    private interface UserVisitor {
+        boolean visit(long id, double score);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Users matching every word of the query, best matches first and ties by id. Exact words rank above
+     * prefixes, shorter completions above longer ones and typos below both.
+     *
+     * @param query Words to search for
+     * @param limit Most users to return, 1 to users.search.max-limit
+     * @return The matching users, best first
+     */
+    public List<User> search(String query, int limit) {
+        List<Long> ids = searchIds(query, limit);
+        Map<Long, User> users = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        // A user deleted since the search is left out
+        return ids.stream().map(users::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Ids of the users {@link #search} returns, without loading them.
+     */
+    public List<Long> searchIds(String query, int limit) {
+        if (!enabled || !ready) {
+            throw new FeatureUnavailableException("User search is " + (enabled ? "still being built" : "not enabled"));
+        }
+        if (limit < 1 || limit > maxLimit) {
+            throw new InvalidSearchRequestException("limit must be between 1 and " + maxLimit);
+        }
+        List<String> words = words(query == null ? "" : query);
+        if (words.isEmpty()) {
+            throw new InvalidSearchRequestException("q must contain at least one letter or digit");
+        }
+        if (words.size() > MAX_QUERY_WORDS) {
+            words = words.subList(0, MAX_QUERY_WORDS);
+        }
+
+        lock.readLock().lock();
+        try {
+            // Drive the search with the word matching the fewest users and check the others per user
+            List<List<Match>> matches = words.stream().map(this::matches).toList();
+            List<Match> driver = matches.stream()
+                    .min(Comparator.comparingLong(word -> word.stream().mapToLong(match -> match.postings().size).sum()))
+                    .orElseThrow();
+            if (words.size() == 1) {
+                return topIds(driver, limit);
+            }
+            List<OtherWord> others = new ArrayList<>();
+            for (int i = 0; i < words.size(); i++) {
+                List<Match> other = matches.get(i);
+                if (other != driver) {
+                    Map<String, Double> scores = other.stream().collect(Collectors.toMap(Match::word, Match::score));
+                    // Completions are expanded before typos, so the cap cut them short only if it ended on one
+                    boolean complete = other.size() < maxExpansions || !other.getLast().word().startsWith(words.get(i));
+                    others.add(new OtherWord(words.get(i), scores, complete));
+                }
+            }
+            return topIds(driver, others, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Dictionary words matched by a query word: the word itself and its completions, then the completions of its
+     * one-typo variants, at most max-expansions words in all.
+     */
+    private List<Match> matches(String word) {
+        List<Match> matches = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        expand(word, word, matches, seen);
+        if (word.length() >= fuzzyMinLength) {
+            for (String variant : variants(word)) {
+                if (matches.size() >= maxExpansions) {
+                    break;
+                }
+                expand(word, variant, matches, seen);
+            }
+        }
+        return matches;
+    }
+
+    private void expand(String word, String prefix, List<Match> matches, Set<String> seen) {
+        for (Map.Entry<String, Postings> entry : dictionary.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet()) {
+            if (matches.size() >= maxExpansions) {
+                return;
+            }
+            if (seen.add(entry.getKey())) {
+                double score = score(word, entry.getKey());
+                if (score > 0) {
+                    matches.add(new Match(entry.getKey(), entry.getValue(), score));
+                }
+            }
+        }
+    }
+
+    /**
+     * Best users of a single-word query.
+     */
+    private List<Long> topIds(List<Match> matches, int limit) {
+        List<Long> top = new ArrayList<>(limit);
+        forEachUser(matches, (id, score) -> top.add(id) && top.size() < limit);
+        return top;
+    }
+
+    /**
+     * Best users of a multi-word query: users of the driving word that also match every other word, scored by
+     * the sum of each query word's best match. Stops once no user of a lower driving score can make the top.
+     */
+    private List<Long> topIds(List<Match> driver, List<OtherWord> others, int limit) {
+        double othersBest = 0;
+        for (OtherWord other : others) {
+            if (other.scores().isEmpty()) {
+                return List.of();
+            }
+            double known = other.scores().values().stream().mapToDouble(Double::doubleValue).max().orElseThrow();
+            // A completion the cap did not reach is longer than the query word
+            int length = other.query().length();
+            othersBest += other.complete() ? known : Math.max(known, 1 + (double) length / (length + 1));
+        }
+        double bound = othersBest;
+        Comparator<Map.Entry<Long, Double>> ranking = Map.Entry.<Long, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.<Long, Double>comparingByKey());
+        PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(ranking.reversed());
+        forEachUser(driver, (id, score) -> {
+            if (best.size() == limit && score + bound < best.peek().getValue()) {
+                return false;
+            }
+            double total = score;
+            for (OtherWord other : others) {
+                double wordScore = 0;
+                for (String word : userWords.get(id)) {
+                    Double known = other.scores().get(word);
+                    if (known == null && !other.complete() && word.startsWith(other.query())) {
+                        known = 1 + (double) other.query().length() / word.length();
+                    }
+                    wordScore = Math.max(wordScore, known != null ? known : 0);
+                }
+                if (wordScore == 0) {
+                    return true;
+                }
+                total += wordScore;
+            }
+            best.add(Map.entry(id, total));
+            if (best.size() > limit) {
+                best.poll();
+            }
+            return true;
+        });
+        List<Map.Entry<Long, Double>> top = new ArrayList<>(best);
+        top.sort(ranking);
+        return top.stream().map(Map.Entry::getKey).toList();
+    }
+
+    /**
+     * Visit the users of a query word's matches at their best score, in descending score and, within a score, in
+     * ascending id, so only as many postings are read as the caller needs.
+     */
+    private static void forEachUser(List<Match> matches, UserVisitor visitor) {
+        List<Match> byScore = new ArrayList<>(matches);
+        byScore.sort(Comparator.comparingDouble(Match::score).reversed());
+        Set<Long> seen = new HashSet<>();
+        int start = 0;
+        while (start < byScore.size()) {
+            int end = start;
+            while (end < byScore.size() && byScore.get(end).score() == byScore.get(start).score()) {
+                end++;
+            }
+            // Merge the equal-score postings in id order
+            List<Match> group = byScore.subList(start, end);
+            PriorityQueue<int[]> cursors = new PriorityQueue<>(Comparator.comparingLong(
+                    (int[] cursor) -> group.get(cursor[0]).postings().ids[cursor[1]]));
+            for (int i = 0; i < group.size(); i++) {
+                if (group.get(i).postings().size > 0) {
+                    cursors.add(new int[]{i, 0});
+                }
+            }
+            while (!cursors.isEmpty()) {
+                int[] cursor = cursors.poll();
+                Postings postings = group.get(cursor[0]).postings();
+                long id = postings.ids[cursor[1]];
+                if (seen.add(id) && !visitor.visit(id, group.get(0).score())) {
+                    return;
+                }
+                if (++cursor[1] < postings.size) {
+                    cursors.add(cursor);
+                }
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * How well a query word matches a dictionary word: 2 when equal, between 1 and 2 for a completion, 1 for a
+     * word one typo away and between 0.5 and 1 for a completion of a one-typo variant. 0 when it does not match.
+     */
+    double score(String query, String word) {
+        if (word.equals(query)) {
+            return 2;
+        }
+        if (word.startsWith(query)) {
+            return 1 + (double) query.length() / word.length();
+        }
+        if (query.length() < fuzzyMinLength) {
+            return 0;
+        }
+        if (Math.abs(word.length() - query.length()) <= 1 && distance(query, word, word.length()) <= 1) {
+            return 1;
+        }
+        for (int length = query.length() - 1; length <= Math.min(query.length() + 1, word.length() - 1); length++) {
+            if (distance(query, word, length) <= 1) {
+                return 0.5 + 0.5 * query.length() / word.length();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Optimal string alignment distance between a query word and the first {@code length} characters of a word:
+     * insertions, deletions, substitutions and swaps of adjacent characters.
+     */
+    static int distance(String query, String word, int length) {
+        int[] previous2 = new int[length + 1];
+        int[] previous = new int[length + 1];
+        int[] current = new int[length + 1];
+        for (int j = 0; j <= length; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= query.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= length; j++) {
+                int cost = query.charAt(i - 1) == word.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && query.charAt(i - 1) == word.charAt(j - 2) && query.charAt(i - 2) == word.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], previous2[j - 2] + 1);
+                }
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[length];
+    }
+
+    /**
+     * Every word one deletion, swap, substitution or insertion away from the given word.
+     */
+    private static Set<String> variants(String word) {
+        Set<String> variants = new LinkedHashSet<>();
+        StringBuilder buffer = new StringBuilder(word.length() + 1);
+        for (int i = 0; i < word.length(); i++) {
+            variants.add(buffer.append(word, 0, i).append(word, i + 1, word.length()).toString());
+            buffer.setLength(0);
+        }
+        for (int i = 0; i + 1 < word.length(); i++) {
+            buffer.append(word);
+            char c = buffer.charAt(i);
+            buffer.setCharAt(i, buffer.charAt(i + 1));
+            buffer.setCharAt(i + 1, c);
+            variants.add(buffer.toString());
+            buffer.setLength(0);
+        }
+        for (int i = 0; i <= word.length(); i++) {
+            for (int a = 0; a < ALPHABET.length(); a++) {
+                char c = ALPHABET.charAt(a);
+                if (i < word.length() && word.charAt(i) != c) {
+                    buffer.append(word);
+                    buffer.setCharAt(i, c);
+                    variants.add(buffer.toString());
+                    buffer.setLength(0);
+                }
+                variants.add(buffer.append(word, 0, i).append(c).append(word, i, word.length()).toString());
+                buffer.setLength(0);
+            }
+        }
+        variants.remove(word);
+        return variants;
+    }
+
+    /**
+     * Lower-case words of a text without accents, e.g. "José.Doe@x.io" to [jose, doe, x, io].
+     */
+    static List<String> words(String text) {
+        String plain = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.splitAsStream(plain.toLowerCase(Locale.ROOT))
+                .filter(word -> !word.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Apply a committed chunk. Chunks committed while the index is built wait for the build and are applied on top.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersChanged(UsersChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            event.inserted().forEach(this::put);
+            event.updated().forEach(this::put);
+            event.deletedIds().forEach(id -> replace(id, new String[0]));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Index every user in the table. Searches are refused until the first build completes.
+     */
+    void rebuild() {
+        long startNanos = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            dictionary.clear();
+            userWords.clear();
+            jdbcTemplate.query(SELECT_SQL, (RowCallbackHandler) rs -> replace(rs.getLong(1),
+                    indexWords(rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5), rs.getString(6))));
+            ready = true;
+            logger.info("Built user search index: {} users, {} words in {} ms.",
+                    userWords.size(), dictionary.size(), (System.nanoTime() - startNanos) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(User user) {
+        replace(user.getId(), indexWords(user.getFirstName(), user.getLastName(), user.getMaidenName(),
+                user.getUsername(), user.getEmail()));
+    }
+
+    private static String[] indexWords(String... fields) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String field : fields) {
+            if (field != null) {
+                words.addAll(words(field));
+            }
+        }
+        return words.toArray(String[]::new);
+    }
+
+    /**
+     * Swap a user's words for new ones, touching only the postings of words that changed.
+     */
+    private void replace(long id, String[] words) {
+        String[] old = userWords.getOrDefault(id, new String[0]);
+        Set<String> kept = new HashSet<>(Arrays.asList(words));
+        for (String word : old) {
+            if (!kept.contains(word)) {
+                Postings postings = dictionary.get(word);
+                postings.remove(id);
+                if (postings.size == 0) {
+                    dictionary.remove(word);
+                }
+            }
+        }
+        Set<String> had = new HashSet<>(Arrays.asList(old));
+        String[] stored = new String[words.length];
+        for (int i = 0; i < words.length; i++) {
+            // Share the dictionary's copy of the word
+            String key = dictionary.floorKey(words[i]);
+            if (!words[i].equals(key)) {
+                dictionary.put(words[i], new Postings());
+                key = words[i];
+            }
+            if (!had.contains(key)) {
+                dictionary.get(key).add(id);
+            }
+            stored[i] = key;
+        }
+        if (stored.length == 0) {
+            userWords.remove(id);
+        } else {
+            userWords.put(id, stored);
+        }
+    }
+}
@@ -1,110 +1,203 @@
 package com.backend.app.service;
 
 import com.backend.app.dao.UserRepository;
+import com.backend.app.dto.LoadResult;
+import com.backend.app.dto.PageCursor;
+import com.backend.app.dto.UserPage;
 import com.backend.app.dto.UsersResponse;
+import com.backend.app.dto.ValidationError;
 import com.backend.app.entity.User;
 import com.backend.app.exception.ExternalApiException;
+import com.backend.app.exception.InvalidPageRequestException;
 import com.backend.app.exception.InvalidSortingOrderException;
 import com.backend.app.exception.UserNotFoundException;
+import com.backend.app.metrics.IngestionMetrics;
 import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
-import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.validation.BeanPropertyBindingResult;
-import org.springframework.validation.BindingResult;
-import org.springframework.validation.Validator;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class UserService {
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
     private final UserRepository userRepository;
     private final RestTemplate restTemplate;
-    private final Validator validator;
+    private final UserValidationStage userValidationStage;
+    private final UserPageFetcher userPageFetcher;
+    private final UserChunkWriter userChunkWriter;
+    private final UserIndex userIndex;
+    private final IngestionMetrics ingestionMetrics;
 
     @Value("${external.api.url}")
     private String externalApiUrl;
 
-    public UserService(UserRepository userRepository, RestTemplate restTemplate, Validator validator) {
+    @Value("${external.api.paged:false}")
+    private boolean paged;
+
+    @Value("${external.api.page-size:100}")
+    private int pageSize;
+
+    @Value("${ingestion.sync.delete-missing:false}")
+    private boolean deleteMissing;
+
+    @Value("${ingestion.validation.policy:FAIL}")
+    private InvalidUserPolicy invalidUserPolicy = InvalidUserPolicy.FAIL;
+
+    @Value("${ingestion.validation.max-reported-errors:100}")
+    private int maxReportedErrors = 100;
+
+    @Value("${users.page.max-limit:1000}")
+    private int maxPageLimit = 1000;
+
+    public UserService(UserRepository userRepository, RestTemplate restTemplate, UserValidationStage userValidationStage,
+                       UserPageFetcher userPageFetcher, UserChunkWriter userChunkWriter, UserIndex userIndex,
+                       IngestionMetrics ingestionMetrics) {
         this.userRepository = userRepository;
         this.restTemplate = restTemplate;
-        this.validator = validator;
+        this.userValidationStage = userValidationStage;
+        this.userPageFetcher = userPageFetcher;
+        this.userChunkWriter = userChunkWriter;
+        this.userIndex = userIndex;
+        this.ingestionMetrics = ingestionMetrics;
     }
 
     /**
      * Load users from the external API and save them in the H2 database.
+     * In paged mode each page is fetched, validated and persisted as its own chunk.
+     * Only new or changed users are written; users missing from the feed are deleted when enabled.
+     * Each phase is timed by {@link IngestionMetrics}. Rebuilding derived state is left to the caller, see
+     * {@link UserLoadCoordinator}, so it does not run under the retry, circuit breaker and bulkhead.
+     *
+     * @return Inserted, updated, unchanged and deleted counts
      */
-    @Transactional
     @Retry(name = "loadUsersRetry", fallbackMethod = "loadUsersFallback")
     @CircuitBreaker(name = "userApiCircuitBreaker", fallbackMethod = "loadUsersFallback")
     @Bulkhead(name = "userApiBulkhead")
-    @Cacheable(value = "users", key = "#root.method.name")
-    public void loadUsers() throws ExternalApiException {
+    public LoadResult loadUsers() throws ExternalApiException {
+        IngestionMetrics.Phase load = ingestionMetrics.startLoad(paged);
+        LoadResult result = new LoadResult();
         try {
-            UsersResponse response = restTemplate.getForObject(externalApiUrl, UsersResponse.class);
-
-            if (response != null && response.getUsers() != null) {
-                logger.info("Received users from external API.");
-
-                // List to store valid users
-                List<User> validUsers = new ArrayList<>();
-                List<String> validationErrors = new ArrayList<>();
-
-                // Iterate through the users and validate each user
-                for (User user : response.getUsers()) {
-                    // Use @Valid to validate the user object
-                    BindingResult result = new BeanPropertyBindingResult(user, "user");
-                    // Perform validation using spring validation API
-                    validator.validate(user, result);
-
-                    // If there are validation errors, log them
-                    if (result.hasErrors()) {
-                        StringBuilder errorMessage = new StringBuilder("Validation failed for user: ");
-                        result.getAllErrors().forEach(error -> errorMessage.append(error.getDefaultMessage()).append("; "));
-                        validationErrors.add(errorMessage.toString());
-                    } else {
-                        validUsers.add(user);
-                    }
-                }
-
-                // If there are validation errors, log them and throw an exception
-                if (!validationErrors.isEmpty()) {
-                    validationErrors.forEach(logger::error);
-                    throw new ExternalApiException("User validation failed: " + String.join(" ", validationErrors), null);
-                }
+            long startNanos = System.nanoTime();
+            long syncRun = userChunkWriter.beginSyncRun();
+            if (paged) {
+                loadUsersPaged(result, syncRun);
+            } else {
+                UsersResponse response = restTemplate.getForObject(externalApiUrl, UsersResponse.class);
 
-                // Save valid users
-                if (!validUsers.isEmpty()) {
-                    logger.info("Saving valid users to the database...");
-                    List<User> saved = userRepository.saveAll(validUsers);
-                    logger.info("Saved " + saved.size() + " users to the database.");
+                if (response != null && response.getUsers() != null) {
+                    logger.info("Received users from external API.");
+                    saveUsers(validateUsers(response.getUsers(), result), result, syncRun);
                 } else {
-                    logger.error("No valid users to save.");
-                    throw new ExternalApiException("No valid users to save.", null);
+                    logger.error("No users found in the response from the external API.");
+                    throw new ExternalApiException("No users found in the response from the external API.", null);
                 }
-            } else {
-                logger.error("No users found in the response from the external API.");
-                throw new ExternalApiException("No users found in the response from the external API.", null);
             }
+
+            if (result.getInserted() + result.getUpdated() + result.getUnchanged() == 0) {
+                logger.error("No valid users to save.");
+                throw new ExternalApiException("No valid users to save.", null);
+            }
+            // Only a load that saw the whole feed may decide which users disappeared from it
+            if (deleteMissing) {
+                result.setDeleted(userChunkWriter.deleteMissing(syncRun));
+            }
+            result.setDurationMs((System.nanoTime() - startNanos) / 1_000_000);
+            result.setFinishedAt(Instant.now());
+            logger.info("Load finished: {} inserted, {} updated, {} unchanged, {} deleted in {} ms.",
+                    result.getInserted(), result.getUpdated(), result.getUnchanged(), result.getDeleted(), result.getDurationMs());
+            return result;
         } catch (Exception e) {
             logger.debug("Failed to fetch and load users from the external API.", e);
             throw new ExternalApiException("Failed to fetch and load users from the external API.", e);
+        } finally {
+            load.stop(result.getInserted() + result.getUpdated() + result.getUnchanged());
         }
     }
+
+    /**
+     * Follow the upstream limit/skip pagination until all pages are ingested.
+     * Pages may be fetched concurrently, but are validated and persisted one at a time in arrival order.
+     */
+    private void loadUsersPaged(LoadResult result, long syncRun) throws ExternalApiException {
+        IngestionProgress progress = new IngestionProgress();
+        userPageFetcher.fetchAll(externalApiUrl, pageSize, page -> {
+            List<User> users = page.getUsers();
+            saveUsers(validateUsers(users, result), result, syncRun);
+            progress.pageCompleted(users.size(), page.getTotal());
+        });
+
+        if (progress.getUsers() == 0) {
+            logger.error("No users found in the response from the external API.");
+            throw new ExternalApiException("No users found in the response from the external API.", null);
+        }
+        logger.info("Paged load finished: {} users in {} pages.", progress.getUsers(), progress.getPages());
+    }
+
+    /**
+     * Validate a chunk of users.
+     *
+     * @param users  Users received from the external API
+     * @param result Load result the invalid users are reported in
+     * @return The valid users; throws if any user is invalid and the policy is FAIL
+     */
+    private List<User> validateUsers(List<User> users, LoadResult result) throws ExternalApiException {
+        IngestionMetrics.Phase validate = ingestionMetrics.start(IngestionMetrics.VALIDATE);
+        UserValidationStage.Result validation = userValidationStage.validate(users);
+        validate.stop(users.size());
+
+        if (validation.invalidUsers() > 0) {
+            ingestionMetrics.recordValidationFailures(validation.errors());
+            // Log a bounded sample; a bad feed can produce one error per user
+            validation.errors().stream().limit(maxReportedErrors).forEach(error -> logger.error("Validation failed for {}", error));
+            if (invalidUserPolicy == InvalidUserPolicy.FAIL) {
+                throw new ExternalApiException("User validation failed: " + validation.errors().stream()
+                        .limit(maxReportedErrors).map(ValidationError::toString).collect(Collectors.joining("; ")), null);
+            }
+            logger.warn("Skipping {} invalid users.", validation.invalidUsers());
+            result.addInvalid(validation.invalidUsers(), validation.errors(), maxReportedErrors);
+        }
+        return validation.validUsers();
+    }
+
+    /**
+     * Persist a chunk of valid users in its own transaction, writing only new or changed rows.
+     *
+     * @param validUsers Users that passed validation
+     * @param result     Load result the chunk counts are added to
+     * @param syncRun    Current sync run
+     */
+    private void saveUsers(List<User> validUsers, LoadResult result, long syncRun) throws ExternalApiException {
+        if (!validUsers.isEmpty()) {
+            logger.info("Saving valid users to the database...");
+            IngestionMetrics.Phase persist = ingestionMetrics.start(IngestionMetrics.PERSIST);
+            LoadResult chunk = userChunkWriter.write(validUsers, syncRun);
+            ingestionMetrics.recordPersisted(chunk, persist.stop(validUsers.size()));
+            result.add(chunk);
+            logger.info("Saved " + (chunk.getInserted() + chunk.getUpdated()) + " users to the database, "
+                    + chunk.getUnchanged() + " unchanged.");
+        } else if (result.getInvalid() == 0) {
+            logger.error("No valid users to save.");
+            throw new ExternalApiException("No valid users to save.", null);
+        }
+    }
+
     /**
      * **Fallback Method**: Called when Circuit Breaker opens or retries fail
      */
-    public void loadUsersFallback(Throwable throwable) {
+    public LoadResult loadUsersFallback(Throwable throwable) {
         logger.error("Fallback triggered: Could not fetch users from API. Cause: {}", throwable.getMessage());
+        return LoadResult.failed(throwable.getMessage());
     }
 
     /**
@@ -123,7 +216,7 @@ public class UserService {
      * @return List of users with the specified role
      */
     public List<User> getUsersByRole(String role) {
-        List<User> users = userRepository.findByRole(role);
+        List<User> users = userIndex.findByRole(role).orElseGet(() -> userRepository.findByRole(role));
         if (users.isEmpty()) {
             throw new UserNotFoundException("No users found with role: " + role);
         }
@@ -138,14 +231,108 @@ public class UserService {
      */
     public List<User> getUsersSortedByAge(String order) {
         if ("asc".equalsIgnoreCase(order)) {
-            return userRepository.findAllByOrderByAgeAsc();
+            return userIndex.findAllSortedByAge(true).orElseGet(userRepository::findAllByOrderByAgeAsc);
         } else if ("desc".equalsIgnoreCase(order)) {
-            return userRepository.findAllByOrderByAgeDesc();
+            return userIndex.findAllSortedByAge(false).orElseGet(userRepository::findAllByOrderByAgeDesc);
         } else {
             throw new InvalidSortingOrderException("Invalid sorting order: " + order + ". Use 'asc' or 'desc'.");
         }
     }
 
+    /**
+     * Get a page of users ordered by id.
+     *
+     * @param limit  Page size
+     * @param cursor Continuation token from the previous page, null for the first page
+     * @param fields Fields to return, null or empty for whole users
+     * @return The page and the token for the next one
+     */
+    public UserPage getUsersPage(int limit, String cursor, List<String> fields) {
+        List<String> projection = checkPageRequest(limit, fields);
+        Long afterId = cursor == null ? null : PageCursor.decode(cursor, "id").id();
+        List<?> rows = userRepository.findPageOrderById(afterId, limit + 1, projection);
+        return toPage(rows, limit, "id", projection);
+    }
+
+    /**
+     * Get a page of users sorted by age, ties broken by id.
+     *
+     * @param order  Sorting order ("asc" or "desc")
+     * @param limit  Page size
+     * @param cursor Continuation token from the previous page, null for the first page
+     * @param fields Fields to return, null or empty for whole users
+     * @return The page and the token for the next one
+     */
+    public UserPage getUsersSortedByAgePage(String order, int limit, String cursor, List<String> fields) {
+        boolean ascending;
+        if ("asc".equalsIgnoreCase(order)) {
+            ascending = true;
+        } else if ("desc".equalsIgnoreCase(order)) {
+            ascending = false;
+        } else {
+            throw new InvalidSortingOrderException("Invalid sorting order: " + order + ". Use 'asc' or 'desc'.");
+        }
+        List<String> projection = checkPageRequest(limit, fields);
+        String sort = ascending ? "age-asc" : "age-desc";
+        PageCursor after = cursor == null ? null : PageCursor.decode(cursor, sort);
+        List<?> rows = userRepository.findPageOrderByAge(ascending,
+                after == null ? null : after.age(), after == null ? null : after.id(), limit + 1, projection);
+        return toPage(rows, limit, sort, projection);
+    }
+
+    private List<String> checkPageRequest(int limit, List<String> fields) {
+        if (limit < 1 || limit > maxPageLimit) {
+            throw new InvalidPageRequestException("limit must be between 1 and " + maxPageLimit);
+        }
+        if (fields == null || fields.isEmpty()) {
+            return List.of();
+        }
+        List<String> allowed = userRepository.projectableFields();
+        List<String> projection = fields.stream().map(String::trim).filter(field -> !field.isEmpty()).distinct().toList();
+        for (String field : projection) {
+            if (!allowed.contains(field)) {
+                throw new InvalidPageRequestException("Unknown field: " + field + ". Allowed fields: " + String.join(", ", allowed));
+            }
+        }
+        return projection;
+    }
+
+    /**
+     * Build the page from up to {@code limit + 1} rows; the extra row only tells whether a next page exists.
+     */
+    @SuppressWarnings("unchecked")
+    private UserPage toPage(List<?> rows, int limit, String sort, List<String> fields) {
+        List<?> items = rows.size() > limit ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            Object last = items.get(items.size() - 1);
+            long id;
+            Integer age;
+            if (last instanceof User user) {
+                id = user.getId();
+                age = user.getAge();
+            } else {
+                Map<String, Object> row = (Map<String, Object>) last;
+                id = (Long) row.get("id");
+                age = (Integer) row.get("age");
+            }
+            nextCursor = new PageCursor(sort, "id".equals(sort) ? null : age, id).encode();
+        }
+        if (!fields.isEmpty()) {
+            // The sort keys were only selected to build the cursor
+            for (Object item : items) {
+                Map<String, Object> row = (Map<String, Object>) item;
+                if (!fields.contains("id")) {
+                    row.remove("id");
+                }
+                if (!fields.contains("age")) {
+                    row.remove("age");
+                }
+            }
+        }
+        return new UserPage(new ArrayList<>(items), nextCursor);
+    }
+
     /**
      * Find a user by their ID or SSN.
      *
@@ -153,16 +340,14 @@ public class UserService {
      * @return The user if found, otherwise throws exception
      */
     public User getUserByIdOrSsn(String idOrSsn) {
-        try {
-            // Attempt to parse ID as a Long
-            Long id = Long.parseLong(idOrSsn);
+        // Anything that is not a plain number is treated as an SSN
+        Long id = UserLookupService.parseId(idOrSsn);
+        if (id != null) {
             return userRepository.findById(id)
                     .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + id));
-        } catch (NumberFormatException e) {
-            // If not a valid Long, treat it as SSN
-            return userRepository.findBySsn(idOrSsn)
-                    .orElseThrow(() -> new UserNotFoundException("User not found with SSN: " + idOrSsn));
         }
+        return userRepository.findBySsn(idOrSsn)
+                .orElseThrow(() -> new UserNotFoundException("User not found with SSN: " + idOrSsn));
     }
 }
 
@@ -0,0 +1,110 @@
+package com.backend.app.service;
+
+import com.backend.app.dao.UserRepository;
+import com.backend.app.dao.UserSnapshotStore;
+import com.backend.app.event.UsersLoadedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Warm restart for the in-memory database. After a load that changed users the table is written to a snapshot
+ * file, and on startup the snapshot is restored into the empty table before the application reports ready, so a
+ * restarted instance can serve reads without waiting for a full upstream load. A missing or unreadable snapshot
+ * is logged and the instance starts empty as before.
+ */
+@Component
+public class UserSnapshotService implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(UserSnapshotService.class);
+
+    private final UserSnapshotStore userSnapshotStore;
+    private final UserRepository userRepository;
+    private final UserCacheInvalidator userCacheInvalidator;
+
+    @Value("${users.snapshot.enabled:false}")
+    private boolean enabled;
+
+    @Value("${users.snapshot.path:data/users.snapshot}")
+    private String path = "data/users.snapshot";
+
+    public UserSnapshotService(UserSnapshotStore userSnapshotStore, UserRepository userRepository,
+                               UserCacheInvalidator userCacheInvalidator) {
+        this.userSnapshotStore = userSnapshotStore;
+        this.userRepository = userRepository;
+        this.userCacheInvalidator = userCacheInvalidator;
+    }
+
+    /**
+     * Restore the snapshot at startup. Runners complete before the application is marked ready.
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            restore();
+        }
+    }
+
+    /**
+     * Restore the snapshot if there is one and the users table is empty.
+     *
+     * @return Number of users restored
+     */
+    public long restore() {
+        Path file = Path.of(path);
+        if (!Files.exists(file)) {
+            logger.info("No user snapshot at {}, starting empty.", file);
+            return 0;
+        }
+        if (userRepository.count() > 0) {
+            logger.info("Users table is not empty, not restoring the snapshot at {}.", file);
+            return 0;
+        }
+        long startNanos = System.nanoTime();
+        try {
+            long restored = userSnapshotStore.restore(file);
+            // The web server is already up, so a lookup may have cached a miss for a restored user
+            userCacheInvalidator.clear();
+            logger.info("Restored {} users from {} in {} ms.", restored, file, (System.nanoTime() - startNanos) / 1_000_000);
+            return restored;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not restore users from {}, starting empty.", file, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Write a new snapshot after a load that changed users, or when there is no snapshot yet.
+     */
+    @EventListener
+    public void onUsersLoaded(UsersLoadedEvent event) {
+        if (enabled && (event.hasChanges() || !Files.exists(Path.of(path)))) {
+            snapshot();
+        }
+    }
+
+    /**
+     * Write the users table to the snapshot file.
+     *
+     * @return Number of users written, or -1 when the snapshot could not be written
+     */
+    public long snapshot() {
+        Path file = Path.of(path);
+        long startNanos = System.nanoTime();
+        try {
+            long written = userSnapshotStore.write(file);
+            logger.info("Wrote {} users to snapshot {} in {} ms.", written, file, (System.nanoTime() - startNanos) / 1_000_000);
+            return written;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not write user snapshot {}.", file, e);
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.backend.app.service;
+
+import com.backend.app.dto.ValidationError;
+import com.backend.app.entity.User;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Validates chunks of ingested users. Large chunks are split across cores with fork-join; every task shares
+ * the same thread-safe validator and reports violations as compact {@link ValidationError} records.
+ */
+@Component
+public class UserValidationStage {
+    private final Validator validator;
+
+    @Value("${ingestion.validation.parallel-threshold:512}")
+    private int parallelThreshold;
+
+    public UserValidationStage(Validator validator) {
+        this.validator = validator;
+    }
+
+    /**
+     * Valid users in input order and the violations of the invalid ones.
+     */
+    public record Result(List<User> validUsers, List<ValidationError> errors, int invalidUsers) {
+    }
+
+    /**
+     * Validate a chunk of users.
+     *
+     * @param users Users received from the external API
+     * @return Valid users and violations
+     */
+    public Result validate(List<User> users) {
+        ValidateTask task = new ValidateTask(users, 0, users.size());
+        return users.size() <= threshold() ? task.compute() : ForkJoinPool.commonPool().invoke(task);
+    }
+
+    private int threshold() {
+        return Math.max(1, parallelThreshold);
+    }
+
+    private class ValidateTask extends RecursiveTask<Result> {
+        private final List<User> users;
+        private final int from;
+        private final int to;
+
+        ValidateTask(List<User> users, int from, int to) {
+            this.users = users;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from > threshold()) {
+                int middle = (from + to) >>> 1;
+                ValidateTask left = new ValidateTask(users, from, middle);
+                left.fork();
+                Result right = new ValidateTask(users, middle, to).compute();
+                return merge(left.join(), right);
+            }
+            List<User> valid = new ArrayList<>(to - from);
+            List<ValidationError> errors = new ArrayList<>();
+            int invalid = 0;
+            for (int i = from; i < to; i++) {
+                User user = users.get(i);
+                var violations = validator.validate(user);
+                if (violations.isEmpty()) {
+                    valid.add(user);
+                    continue;
+                }
+                invalid++;
+                for (ConstraintViolation<User> violation : violations) {
+                    errors.add(new ValidationError(user.getId(), violation.getPropertyPath().toString(),
+                            violation.getConstraintDescriptor().getAnnotation().annotationType().getSimpleName()));
+                }
+            }
+            return new Result(valid, errors, invalid);
+        }
+
+        private Result merge(Result left, Result right) {
+            List<User> valid = new ArrayList<>(left.validUsers().size() + right.validUsers().size());
+            valid.addAll(left.validUsers());
+            valid.addAll(right.validUsers());
+            List<ValidationError> errors = left.errors();
+            if (!right.errors().isEmpty()) {
+                errors = new ArrayList<>(left.errors());
+                errors.addAll(right.errors());
+            }
+            return new Result(valid, errors, left.invalidUsers() + right.invalidUsers());
+        }
+    }
+}
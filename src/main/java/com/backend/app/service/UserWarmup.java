@@ -0,0 +1,290 @@
+package com.backend.app.service;
+
+import com.backend.app.dao.UserRepository;
+import com.backend.app.dto.LoadResult;
+import com.backend.app.dto.UserPage;
+import com.backend.app.dto.UserFilter;
+import com.backend.app.entity.Address;
+import com.backend.app.entity.Company;
+import com.backend.app.entity.Coordinates;
+import com.backend.app.entity.User;
+import com.backend.app.exception.ExternalApiException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+/**
+ * Background warm-up after startup, reported through the readiness health group. It loads users when the table
+ * is still empty after the snapshot restore, primes the lookup caches and calls the service behind every users
+ * endpoint, serializing the responses, so Hibernate, Jackson and the JIT are warm before Kubernetes routes
+ * traffic to the instance. A failed step is logged and the warm-up carries on; the instance then serves
+ * as it would have without one.
+ */
+@Component
+public class UserWarmup implements HealthIndicator {
+    private static final Logger logger = LoggerFactory.getLogger(UserWarmup.class);
+    private static final List<String> ROLES = List.of("admin", "user", "manager", "moderator");
+    private static final int PAGE_SIZE = 100;
+
+    static final String PENDING = "pending";
+    static final String LOADING = "loading";
+    static final String PRIMING = "priming caches";
+    static final String EXERCISING = "exercising endpoints";
+    static final String COMPLETE = "complete";
+
+    private final UserService userService;
+    private final UserExportService userExportService;
+    private final UserLookupService userLookupService;
+    private final UserSearchIndex userSearchIndex;
+    private final UserGeoIndex userGeoIndex;
+    private final UserAggregates userAggregates;
+    private final UserColumnStore userColumnStore;
+    private final UserLoadCoordinator userLoadCoordinator;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${users.warmup.enabled:false}")
+    private boolean enabled;
+
+    @Value("${users.warmup.load-if-empty:true}")
+    private boolean loadIfEmpty = true;
+
+    @Value("${users.warmup.cache-users:1000}")
+    private int cacheUsers = 1000;
+
+    @Value("${users.warmup.iterations:200}")
+    private int iterations = 200;
+
+    @Value("${users.warmup.max-duration:60s}")
+    private Duration maxDuration = Duration.ofSeconds(60);
+
+    @Value("${users.warmup.full-table-max-rows:10000}")
+    private long fullTableMaxRows = 10_000;
+
+    private volatile String phase = PENDING;
+    private volatile long durationMs;
+
+    public UserWarmup(UserService userService, UserExportService userExportService,
+                      UserLookupService userLookupService, UserSearchIndex userSearchIndex, UserGeoIndex userGeoIndex,
+                      UserAggregates userAggregates, UserColumnStore userColumnStore,
+                      UserLoadCoordinator userLoadCoordinator, UserRepository userRepository, ObjectMapper objectMapper) {
+        this.userService = userService;
+        this.userExportService = userExportService;
+        this.userLookupService = userLookupService;
+        this.userSearchIndex = userSearchIndex;
+        this.userGeoIndex = userGeoIndex;
+        this.userAggregates = userAggregates;
+        this.userColumnStore = userColumnStore;
+        this.userLoadCoordinator = userLoadCoordinator;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Out of service until the warm-up completes, so the readiness group refuses traffic meanwhile.
+     */
+    @Override
+    public Health health() {
+        if (!enabled) {
+            return Health.up().build();
+        }
+        String current = phase;
+        Health.Builder health = COMPLETE.equals(current) ? Health.up() : Health.outOfService();
+        health.withDetail("phase", current);
+        if (COMPLETE.equals(current)) {
+            health.withDetail("durationMs", durationMs);
+        }
+        return health.build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            Thread.ofPlatform().name("user-warmup").daemon().start(this::warmUp);
+        }
+    }
+
+    /**
+     * Run every warm-up step. Never throws; the instance reports ready afterwards whatever the outcome.
+     */
+    void warmUp() {
+        long startNanos = System.nanoTime();
+        try {
+            loadIfEmpty();
+            List<User> primed = primeCaches();
+            exerciseEndpoints(primed);
+        } catch (RuntimeException e) {
+            logger.warn("Warm-up failed, reporting ready without it.", e);
+        } finally {
+            durationMs = (System.nanoTime() - startNanos) / 1_000_000;
+            phase = COMPLETE;
+            logger.info("Warm-up finished in {} ms.", durationMs);
+        }
+    }
+
+    private void loadIfEmpty() {
+        if (!loadIfEmpty || userRepository.count() > 0) {
+            return;
+        }
+        phase = LOADING;
+        try {
+            LoadResult result = userLoadCoordinator.load();
+            if (!LoadResult.COMPLETED.equals(result.getStatus())) {
+                logger.warn("Warm-up load did not complete: {}", result.getMessage());
+            }
+        } catch (ExternalApiException e) {
+            logger.warn("Warm-up load failed, warming up with the users already stored.", e);
+        }
+    }
+
+    /**
+     * Page through the first cache-users users by id and look each up by id and SSN, which caches them.
+     */
+    private List<User> primeCaches() {
+        phase = PRIMING;
+        List<User> primed = new ArrayList<>(cacheUsers);
+        String cursor = null;
+        while (primed.size() < cacheUsers) {
+            UserPage page = userService.getUsersPage(Math.min(PAGE_SIZE, cacheUsers - primed.size()), cursor, null);
+            for (Object item : page.getItems()) {
+                User user = (User) item;
+                primed.add(user);
+                userService.getUserByIdOrSsn(String.valueOf(user.getId()));
+                if (user.getSsn() != null) {
+                    userService.getUserByIdOrSsn(user.getSsn());
+                }
+            }
+            cursor = page.getNextCursor();
+            if (cursor == null) {
+                break;
+            }
+        }
+        return primed;
+    }
+
+    /**
+     * Call the paged, lookup, stats, search, filter and geo endpoints for the configured iterations, stopping early
+     * once this stage has run for max-duration. The whole-table endpoints run to completion once called, so they are
+     * only called once, and only while the table holds at most full-table-max-rows users.
+     */
+    private void exerciseEndpoints(List<User> primed) {
+        phase = EXERCISING;
+        long deadline = System.nanoTime() + maxDuration.toNanos();
+        long rows = userRepository.count();
+        if (rows <= fullTableMaxRows) {
+            exercise("all", userService::getAllUsers);
+            for (String role : ROLES) {
+                exercise("role", () -> userService.getUsersByRole(role));
+            }
+            exercise("sort", () -> userService.getUsersSortedByAge("asc"));
+            exercise("sort", () -> userService.getUsersSortedByAge("desc"));
+            for (ExportFormat format : ExportFormat.values()) {
+                exercise("export", () -> {
+                    userExportService.export(format, OutputStream.nullOutputStream());
+                    return null;
+                });
+            }
+        } else {
+            logger.info("Skipping the whole-table endpoints in the warm-up: {} users is above {}.", rows, fullTableMaxRows);
+        }
+        exercise("stats", userAggregates::stats);
+
+        for (int i = 0; i < iterations && System.nanoTime() - deadline < 0; i++) {
+            exercise("page", () -> userService.getUsersPage(PAGE_SIZE, null, null));
+            exercise("page", () -> userService.getUsersPage(PAGE_SIZE, null, List.of("firstName", "email")));
+            exercise("sort", () -> userService.getUsersSortedByAgePage("asc", PAGE_SIZE, null, null));
+            exercise("sort", () -> userService.getUsersSortedByAgePage("desc", PAGE_SIZE, null, null));
+            if (!primed.isEmpty()) {
+                User user = primed.get(i % primed.size());
+                exercise("lookup", () -> userService.getUserByIdOrSsn(String.valueOf(user.getId())));
+                if (user.getSsn() != null) {
+                    exercise("lookup", () -> userService.getUserByIdOrSsn(user.getSsn()));
+                }
+                List<String> keys = bulkKeys(primed, i);
+                exercise("bulk lookup", () -> userLookupService.lookup(keys));
+                if (user.getFirstName() != null) {
+                    exercise("search", () -> userSearchIndex.search(user.getFirstName(), 20));
+                }
+                UserFilter filter = filterLike(user);
+                exercise("filter", () -> userColumnStore.filter(filter, PAGE_SIZE, null));
+                Coordinates point = coordinates(user);
+                if (point != null) {
+                    exercise("near", () -> userGeoIndex.near(point.getLat(), point.getLng(), 50, 100));
+                    exercise("within", () -> userGeoIndex.within(point.getLat() - 1, point.getLng() - 1,
+                            point.getLat() + 1, point.getLng() + 1, 100));
+                }
+            }
+        }
+    }
+
+    /**
+     * Filter on the role and the ten-year age band of a user, whichever are known.
+     */
+    private static UserFilter filterLike(User user) {
+        UserFilter filter = new UserFilter();
+        if (user.getRole() != null) {
+            filter.setRole(List.of(user.getRole()));
+        }
+        if (user.getAge() != null) {
+            filter.setMinAge(user.getAge() / 10 * 10);
+            filter.setMaxAge(user.getAge() / 10 * 10 + 9);
+        }
+        return filter;
+    }
+
+    /**
+     * Company coordinates of a user, or null when missing or too close to a pole or the antimeridian for a box of
+     * one degree around them.
+     */
+    private static Coordinates coordinates(User user) {
+        Coordinates point = Optional.ofNullable(user.getCompany())
+                .map(Company::getAddress)
+                .map(Address::getCoordinates)
+                .orElse(null);
+        if (point == null || point.getLat() == null || point.getLng() == null
+                || Math.abs(point.getLat()) > 89 || Math.abs(point.getLng()) > 179) {
+            return null;
+        }
+        return point;
+    }
+
+    /**
+     * Ids and SSNs of up to {@value #PAGE_SIZE} primed users starting at the given round.
+     */
+    private static List<String> bulkKeys(List<User> primed, int round) {
+        List<String> keys = new ArrayList<>();
+        for (int j = 0; j < Math.min(PAGE_SIZE, primed.size()); j++) {
+            User user = primed.get((round + j) % primed.size());
+            keys.add(j % 2 == 0 || user.getSsn() == null ? String.valueOf(user.getId()) : user.getSsn());
+        }
+        return keys;
+    }
+
+    /**
+     * Call one endpoint and serialize its response as the message converter would. Errors such as a role
+     * without users are expected on small tables and only logged at debug.
+     */
+    private void exercise(String endpoint, Callable<?> call) {
+        try {
+            Object response = call.call();
+            if (response != null) {
+                objectMapper.writeValue(OutputStream.nullOutputStream(), response);
+            }
+        } catch (Exception e) {
+            logger.debug("Warm-up call to {} failed: {}", endpoint, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.backend.app.aot;
+
+import com.backend.app.loadtest.StubUsersApi;
+import com.backend.app.support.TestUsers;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Starts the application extracted by the aot profile as a separate process, once as a plain JVM start and once
+ * with the AOT-processed context and the CDS archive, and checks that the optimized start serves every
+ * /api/users endpoint against a stub of the external API, with the search, geo, stats, columns and change feed
+ * features switched on. Time to readiness and resident memory of both starts are written to
+ * target/aot-startup.txt. Run with {@code mvn -Paot verify}.
+ */
+class AotApplicationIT {
+    private static final int USERS = 200;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration EVENT_TIMEOUT = Duration.ofSeconds(10);
+    private static final List<String> FEATURES = List.of("search", "geo", "stats", "columns", "changes");
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final HttpClient httpClient = HttpClient.newHttpClient();
+    private static final List<String> report = new ArrayList<>();
+
+    private static Path appDir;
+    private static StubUsersApi stub;
+
+    /**
+     * A started application process and how it went.
+     */
+    private record Started(Process process, String baseUrl, long readyMs, String rss) implements AutoCloseable {
+        @Override
+        public void close() throws InterruptedException {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    @BeforeAll
+    static void startStub() throws IOException {
+        String dir = System.getProperty("aot.app.dir");
+        assumeTrue(dir != null, "Run with mvn -Paot verify");
+        appDir = Path.of(dir);
+        stub = new StubUsersApi(objectMapper, USERS);
+    }
+
+    @AfterAll
+    static void stopStub() throws IOException {
+        if (stub != null) {
+            stub.close();
+        }
+        if (!report.isEmpty()) {
+            Path file = appDir.getParent().resolve("aot-startup.txt");
+            Files.write(file, report);
+        }
+    }
+
+    @Test
+    void aotBuild_ServesAllUserEndpoints() throws Exception {
+        try (Started jvm = start("jvm", false)) {
+            report.add("jvm      ready in " + jvm.readyMs() + " ms, rss " + jvm.rss());
+        }
+        try (Started aot = start("aot+cds", true)) {
+            report.add("aot+cds  ready in " + aot.readyMs() + " ms, rss " + aot.rss());
+            String url = aot.baseUrl();
+
+            JsonNode load = json(send(url, "POST", "/api/users/load", 200));
+            assertEquals("completed", load.get("status").asText());
+            assertEquals(USERS, load.get("inserted").asLong());
+
+            assertEquals(USERS, json(send(url, "GET", "/api/users", 200)).size());
+            JsonNode page = json(send(url, "GET", "/api/users?limit=10&fields=firstName", 200));
+            assertEquals(10, page.get("items").size());
+            assertEquals(Map.of("firstName", "First1"), objectMapper.convertValue(page.get("items").get(0), Map.class));
+            send(url, "GET", "/api/users?limit=10&cursor=" + page.get("nextCursor").asText(), 200);
+            assertTrue(json(send(url, "GET", "/api/users/role/admin", 200)).size() > 0);
+            assertEquals(USERS, json(send(url, "GET", "/api/users/sort?order=desc", 200)).size());
+            assertEquals(5, json(send(url, "GET", "/api/users/sort?order=asc&limit=5", 200)).get("items").size());
+            assertEquals(USERS + 1, send(url, "GET", "/api/users/export?format=csv", 200).lines().count());
+            assertEquals(7, json(send(url, "GET", "/api/users/7", 200)).get("id").asLong());
+            assertEquals(7, json(send(url, "GET", "/api/users/" + TestUsers.ssn(7), 200)).get("id").asLong());
+            send(url, "GET", "/api/users/" + (USERS + 1), 404);
+            JsonNode lookup = json(post(url, "/api/users/lookup", "[\"3\", \"" + TestUsers.ssn(4) + "\", \"999\"]"));
+            assertEquals(2, lookup.get("users").size());
+            assertEquals("999", lookup.get("notFound").get(0).asText());
+            send(url, "GET", "/api/users/sort?order=sideways", 400);
+
+            JsonNode search = json(send(url, "GET", "/api/users/search?q=first7&limit=1", 200));
+            assertEquals(7, search.get(0).get("id").asLong());
+            JsonNode near = json(send(url, "GET", "/api/users/near?lat=-77.09213&lng=-92.014824&radiusKm=1", 200));
+            assertEquals(7, near.get(0).get("user").get("id").asLong());
+            send(url, "GET", "/api/users/near?lat=north&lng=0&radiusKm=5", 400);
+            JsonNode within = json(send(url, "GET",
+                    "/api/users/within?minLat=-78&minLng=-93&maxLat=-75&maxLng=-90&limit=10", 200));
+            assertEquals(USERS, within.get("total").asLong());
+            assertEquals(10, within.get("users").size());
+            assertEquals(USERS, json(send(url, "GET", "/api/users/stats", 200)).get("total").asLong());
+            JsonNode filtered = json(send(url, "GET", "/api/users/filter?role=admin&limit=5", 200));
+            assertEquals(5, filtered.get("items").size());
+            assertEquals("admin", filtered.get("items").get(0).get("role").asText());
+            assertEquals("event:insert", firstEvent(url, "/api/users/changes?since=0"));
+
+            // springdoc is switched off in prod
+            assertNotEquals(200, get(url + "/v3/api-docs").statusCode());
+        }
+    }
+
+    private Started start(String name, boolean optimized) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        if (optimized) {
+            command.addAll(List.of("-XX:SharedArchiveFile=application.jsa", "-Dspring.aot.enabled=true"));
+        }
+        command.addAll(List.of("-jar", System.getProperty("aot.app.jar"),
+                "--spring.profiles.active=" + System.getProperty("aot.profiles"),
+                "--server.port=" + port,
+                "--external.api.url=" + stub.url(),
+                "--logging.file.name="));
+        FEATURES.forEach(feature -> command.add("--users." + feature + ".enabled=true"));
+        Process process = new ProcessBuilder(command)
+                .directory(appDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(appDir.resolve(name.replace('+', '-') + ".log").toFile())
+                .start();
+        long startNanos = System.nanoTime();
+        String baseUrl = "http://localhost:" + port;
+        try {
+            awaitReady(process, baseUrl);
+        } catch (Exception | AssertionError e) {
+            process.destroy();
+            throw e;
+        }
+        long readyMs = (System.nanoTime() - startNanos) / 1_000_000;
+        return new Started(process, baseUrl, readyMs, rss(process));
+    }
+
+    private static void awaitReady(Process process, String baseUrl) throws InterruptedException {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() - deadline < 0) {
+            if (!process.isAlive()) {
+                fail("Application exited with status " + process.exitValue());
+            }
+            try {
+                if (get(baseUrl + "/actuator/health/readiness").statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(20);
+        }
+        fail("Application not ready after " + STARTUP_TIMEOUT);
+    }
+
+    /**
+     * Resident set size from /proc, or n/a where there is none.
+     */
+    private static String rss(Process process) {
+        try {
+            return Files.readAllLines(Path.of("/proc", String.valueOf(process.pid()), "status")).stream()
+                    .filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> line.substring("VmRSS:".length()).trim())
+                    .findFirst()
+                    .orElse("n/a");
+        } catch (IOException e) {
+            return "n/a";
+        }
+    }
+
+    private static HttpResponse<String> get(String url) throws IOException, InterruptedException {
+        return httpClient.send(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String send(String baseUrl, String method, String path, int expectedStatus)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(expectedStatus, response.statusCode(), method + " " + path + ": " + response.body());
+        return response.body();
+    }
+
+    /**
+     * Open a Server-Sent Events stream and return the event line of its first event, then disconnect.
+     */
+    private static String firstEvent(String baseUrl, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Accept", "text/event-stream")
+                .build();
+        HttpResponse<Stream<String>> response = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofLines())
+                .get(EVENT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        assertEquals(200, response.statusCode(), "GET " + path);
+        try (Stream<String> lines = response.body()) {
+            return CompletableFuture.supplyAsync(() -> lines.filter(line -> line.startsWith("event:")).findFirst())
+                    .get(EVENT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+                    .orElse(null);
+        }
+    }
+
+    private static String post(String baseUrl, String path, String json) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "POST " + path + ": " + response.body());
+        return response.body();
+    }
+
+    private static JsonNode json(String body) throws IOException {
+        return objectMapper.readTree(body);
+    }
+}
@@ -0,0 +1,33 @@
+package com.backend.app.benchmark;
+
+import com.backend.app.Main;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Application context the benchmarks run against, without the web tier.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Start the application without the web tier, logging only warnings to the console. The properties are
+     * passed as command line arguments so they override application.properties.
+     */
+    static ConfigurableApplicationContext start(String... properties) {
+        List<String> args = new ArrayList<>(List.of("--logging.level.root=WARN", "--logging.level.com.backend.app=WARN",
+                "--logging.file.name="));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        return new SpringApplicationBuilder(Main.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,160 @@
+package com.backend.app.benchmark;
+
+import com.backend.app.dto.UserFilter;
+import com.backend.app.entity.User;
+import com.backend.app.service.UserColumnStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Filtered scans over the column store against the same filter applied to a list of User objects, as a scan of
+ * entities already in memory would. The store is built from an embedded database holding only the filtered
+ * columns, and the User objects carry only those fields, which flatters the object scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class UserColumnBenchmark {
+    private static final String[] ROLES = {"admin", "user", "moderator", "manager"};
+    private static final String[] GENDERS = {"male", "female", "other"};
+    private static final String[] BLOOD_GROUPS = {"A+", "A-", "B+", "B-", "AB+", "AB-", "O+", "O-"};
+    private static final String[] EYE_COLORS = {"Brown", "Blue", "Green", "Gray", "Amber", "Hazel"};
+
+    @Param("1000000")
+    public int users;
+
+    private EmbeddedDatabase database;
+    private UserColumnStore userColumnStore;
+    private List<User> objects;
+    private UserFilter selective;
+    private UserFilter rangesOnly;
+
+    @Setup
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, age INT, height DOUBLE PRECISION, "
+                + "weight DOUBLE PRECISION, role VARCHAR(20), gender VARCHAR(20), blood_group VARCHAR(5), "
+                + "eye_color VARCHAR(20))");
+        Random random = new Random(42);
+        objects = new ArrayList<>(users);
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (long id = 1; id <= users; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setAge(random.nextInt(10) == 0 ? null : 18 + random.nextInt(60));
+            user.setHeight(150 + random.nextGaussian() * 12 + 20);
+            user.setWeight(50 + random.nextDouble() * 60);
+            user.setRole(ROLES[random.nextInt(ROLES.length)]);
+            user.setGender(GENDERS[random.nextInt(GENDERS.length)]);
+            user.setBloodGroup(BLOOD_GROUPS[random.nextInt(BLOOD_GROUPS.length)]);
+            user.setEyeColor(EYE_COLORS[random.nextInt(EYE_COLORS.length)]);
+            objects.add(user);
+            rows.add(new Object[]{id, user.getAge(), user.getHeight(), user.getWeight(), user.getRole(),
+                    user.getGender(), user.getBloodGroup(), user.getEyeColor()});
+            if (rows.size() == 10_000 || id == users) {
+                jdbcTemplate.batchUpdate("INSERT INTO users VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        userColumnStore = new UserColumnStore(null, jdbcTemplate);
+        ReflectionTestUtils.setField(userColumnStore, "enabled", true);
+        ReflectionTestUtils.invokeMethod(userColumnStore, "rebuild");
+
+        selective = new UserFilter();
+        selective.setRole(List.of("admin"));
+        selective.setBloodGroup(List.of("O-", "AB-"));
+        selective.setEyeColor(List.of("Green"));
+        selective.setMinAge(30);
+        selective.setMaxAge(39);
+        selective.setMinHeight(175.0);
+        rangesOnly = new UserFilter();
+        rangesOnly.setMinAge(30);
+        rangesOnly.setMaxAge(39);
+        rangesOnly.setMaxWeight(60.0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    /** First page of 100 for a filter on five columns matching about 1 in 2000 users. */
+    @Benchmark
+    public long[] columnsSelectivePage() {
+        return userColumnStore.filterIds(selective, null, 101);
+    }
+
+    @Benchmark
+    public long[] objectsSelectivePage() {
+        return scan(selective, 101);
+    }
+
+    /** Every match of the selective filter. */
+    @Benchmark
+    public long[] columnsSelectiveAll() {
+        return userColumnStore.filterIds(selective, null, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public long[] objectsSelectiveAll() {
+        return scan(selective, Integer.MAX_VALUE);
+    }
+
+    /** Every match of age and weight ranges only, about 1 in 40 users, so every row is checked. */
+    @Benchmark
+    public long[] columnsRangesAll() {
+        return userColumnStore.filterIds(rangesOnly, null, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public long[] objectsRangesAll() {
+        return scan(rangesOnly, Integer.MAX_VALUE);
+    }
+
+    private long[] scan(UserFilter filter, int max) {
+        Predicate<User> matches = user -> in(filter.getRole(), user.getRole())
+                && in(filter.getGender(), user.getGender())
+                && in(filter.getBloodGroup(), user.getBloodGroup())
+                && in(filter.getEyeColor(), user.getEyeColor())
+                && between(user.getAge(), filter.getMinAge(), filter.getMaxAge())
+                && between(user.getHeight(), filter.getMinHeight(), filter.getMaxHeight())
+                && between(user.getWeight(), filter.getMinWeight(), filter.getMaxWeight());
+        return objects.stream().filter(matches).limit(max).mapToLong(User::getId).toArray();
+    }
+
+    private static boolean in(List<String> values, String value) {
+        return values == null || values.contains(value);
+    }
+
+    private static <T extends Comparable<T>> boolean between(T value, T min, T max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        return value != null && (min == null || value.compareTo(min) >= 0) && (max == null || value.compareTo(max) <= 0);
+    }
+}
@@ -0,0 +1,99 @@
+package com.backend.app.benchmark;
+
+import com.backend.app.entity.User;
+import com.backend.app.event.UsersChangedEvent;
+import com.backend.app.service.UserGeoIndex;
+import com.backend.app.support.TestUsers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of the in-memory geo index. Most companies are clustered around a few dozen city centres and
+ * the rest spread over the world, so city-sized queries hit dense cells. The index is filled through load chunks
+ * of 1000 users, as during ingestion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class UserGeoBenchmark {
+    private static final int CITIES = 50;
+
+    @Param("1000000")
+    public int users;
+
+    private UserGeoIndex userGeoIndex;
+    private double cityLat;
+    private double cityLng;
+
+    @Setup
+    public void setUp() {
+        userGeoIndex = new UserGeoIndex(null, null);
+        ReflectionTestUtils.setField(userGeoIndex, "enabled", true);
+        ReflectionTestUtils.setField(userGeoIndex, "ready", true);
+        Random random = new Random(42);
+        double[][] cities = new double[CITIES][];
+        for (int i = 0; i < CITIES; i++) {
+            cities[i] = new double[]{random.nextDouble(-50, 60), random.nextDouble(-170, 170)};
+        }
+        cityLat = cities[0][0];
+        cityLng = cities[0][1];
+
+        List<User> chunk = new ArrayList<>(1000);
+        for (long id = 1; id <= users; id++) {
+            User user = TestUsers.user(id);
+            double[] city = cities[random.nextInt(CITIES)];
+            boolean clustered = random.nextInt(5) > 0;
+            user.getCompany().getAddress().getCoordinates()
+                    .setLat(clustered ? city[0] + random.nextGaussian() * 0.3 : random.nextDouble(-60, 70));
+            user.getCompany().getAddress().getCoordinates()
+                    .setLng(clustered ? city[1] + random.nextGaussian() * 0.3 : random.nextDouble(-180, 180));
+            chunk.add(user);
+            if (chunk.size() == 1000 || id == users) {
+                userGeoIndex.onUsersChanged(new UsersChangedEvent(chunk, List.of(), List.of()));
+                chunk = new ArrayList<>(1000);
+            }
+        }
+    }
+
+    /** The 100 nearest companies within 10 km of a city centre. */
+    @Benchmark
+    public List<UserGeoIndex.Hit> nearCity10Km() {
+        return userGeoIndex.nearIds(cityLat, cityLng, 10, 100);
+    }
+
+    /** The 100 nearest companies within 100 km, which covers the whole city cluster. */
+    @Benchmark
+    public List<UserGeoIndex.Hit> nearCity100Km() {
+        return userGeoIndex.nearIds(cityLat, cityLng, 100, 100);
+    }
+
+    /** Count and first 100 of a one-degree box around a city centre. */
+    @Benchmark
+    public UserGeoIndex.Area withinCityBox() {
+        return userGeoIndex.withinIds(cityLat - 0.5, cityLng - 0.5, cityLat + 0.5, cityLng + 0.5, 100);
+    }
+
+    /** Count and first 100 of a 20 by 20 degree territory. */
+    @Benchmark
+    public UserGeoIndex.Area withinTerritory() {
+        return userGeoIndex.withinIds(cityLat - 10, cityLng - 10, cityLat + 10, cityLng + 10, 100);
+    }
+}
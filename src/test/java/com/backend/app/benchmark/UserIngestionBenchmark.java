@@ -0,0 +1,110 @@
+package com.backend.app.benchmark;
+
+import com.backend.app.dao.UserRepository;
+import com.backend.app.dto.LoadResult;
+import com.backend.app.dto.UsersResponse;
+import com.backend.app.entity.User;
+import com.backend.app.exception.ExternalApiException;
+import com.backend.app.metrics.IngestionMetrics;
+import com.backend.app.service.UserChunkWriter;
+import com.backend.app.service.UserIndex;
+import com.backend.app.service.UserPageFetcher;
+import com.backend.app.service.UserService;
+import com.backend.app.service.UserValidationStage;
+import com.backend.app.support.TestUsers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation and persist throughput of {@link UserService#loadUsers()} in paged mode. The upstream API is
+ * replaced by pages cut from a prepared list so the result does not depend on the network.
+ * <p>
+ * feed=new loads into empty tables (insert path); feed=unchanged reloads the same users (fingerprint-only path).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UserIngestionBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int users;
+
+    @Param({"new", "unchanged"})
+    private String feed;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void start() throws ExternalApiException {
+        context = BenchmarkApplication.start("spring.cache.type=none");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<User> feedUsers = TestUsers.generate(users);
+
+        UserPageFetcher pageFetcher = new UserPageFetcher(context.getBean(RestTemplate.class),
+                context.getBean(ObjectMapper.class), context.getBean(BulkheadRegistry.class)) {
+            @Override
+            public long fetchAll(String baseUrl, int pageSize, PageHandler handler) throws ExternalApiException {
+                for (int skip = 0; skip < feedUsers.size(); skip += pageSize) {
+                    UsersResponse page = new UsersResponse();
+                    page.setUsers(feedUsers.subList(skip, Math.min(skip + pageSize, feedUsers.size())));
+                    page.setTotal(feedUsers.size());
+                    handler.handle(page);
+                }
+                return feedUsers.size();
+            }
+        };
+        userService = new UserService(context.getBean(UserRepository.class), context.getBean(RestTemplate.class),
+                context.getBean(UserValidationStage.class), pageFetcher, context.getBean(UserChunkWriter.class),
+                context.getBean(UserIndex.class), context.getBean(IngestionMetrics.class));
+        ReflectionTestUtils.setField(userService, "externalApiUrl", "http://upstream.invalid/users");
+        ReflectionTestUtils.setField(userService, "paged", true);
+        ReflectionTestUtils.setField(userService, "pageSize", 1000);
+
+        if ("unchanged".equals(feed)) {
+            userService.loadUsers();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyTables() {
+        if ("new".equals(feed)) {
+            jdbcTemplate.execute("TRUNCATE TABLE user_fingerprints");
+            jdbcTemplate.execute("TRUNCATE TABLE users");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public LoadResult loadUsers() throws ExternalApiException {
+        return userService.loadUsers();
+    }
+}
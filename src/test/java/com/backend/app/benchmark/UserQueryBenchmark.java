@@ -0,0 +1,82 @@
+package com.backend.app.benchmark;
+
+import com.backend.app.dto.LoadResult;
+import com.backend.app.entity.User;
+import com.backend.app.event.UsersLoadedEvent;
+import com.backend.app.service.UserChunkWriter;
+import com.backend.app.service.UserService;
+import com.backend.app.support.TestUsers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths behind GET /api/users/{idOrSsn} and GET /api/users/sort over a table of 10,000 users.
+ * readPath=database runs without the lookup caches and the in-memory index, readPath=memory with both.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserQueryBenchmark {
+    private static final int USERS = 10_000;
+
+    @Param({"database", "memory"})
+    private String readPath;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @Setup
+    public void start() {
+        boolean memory = "memory".equals(readPath);
+        context = BenchmarkApplication.start("spring.cache.type=" + (memory ? "caffeine" : "none"),
+                "users.index.enabled=" + memory);
+        userService = context.getBean(UserService.class);
+
+        UserChunkWriter chunkWriter = context.getBean(UserChunkWriter.class);
+        List<User> users = TestUsers.generate(USERS);
+        long syncRun = chunkWriter.beginSyncRun();
+        LoadResult result = new LoadResult();
+        for (int from = 0; from < USERS; from += 1000) {
+            result.add(chunkWriter.write(users.subList(from, from + 1000), syncRun));
+        }
+        context.publishEvent(new UsersLoadedEvent(result));
+    }
+
+    @TearDown
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public User getUserById() {
+        return userService.getUserByIdOrSsn(Long.toString(1 + ThreadLocalRandom.current().nextInt(USERS)));
+    }
+
+    @Benchmark
+    public User getUserBySsn() {
+        return userService.getUserByIdOrSsn(TestUsers.ssn(1 + ThreadLocalRandom.current().nextInt(USERS)));
+    }
+
+    @Benchmark
+    public List<User> getUsersSortedByAge() {
+        return userService.getUsersSortedByAge("asc");
+    }
+}
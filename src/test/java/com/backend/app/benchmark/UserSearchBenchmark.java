@@ -0,0 +1,109 @@
+package com.backend.app.benchmark;
+
+import com.backend.app.entity.User;
+import com.backend.app.event.UsersChangedEvent;
+import com.backend.app.service.UserSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency of the in-memory user search index. Users get first, last and maiden names drawn from a few
+ * hundred generated names, as real directories repeat names, and unique usernames and emails. The index is filled
+ * through load chunks of 1000 users, as during ingestion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class UserSearchBenchmark {
+    private static final String[] SYLLABLES = {"ka", "ri", "mo", "la", "ne", "so", "ta", "vi", "do", "el", "an", "mar",
+            "jo", "lu", "be", "da", "li", "ro", "sa", "te", "ber", "ton", "son", "wen"};
+    private static final String[] DOMAINS = {"example.com", "mail.org", "corp.net", "inbox.io"};
+
+    /** exact, prefix, typo, two-words or email */
+    @Param({"exact", "prefix", "typo", "two-words", "email"})
+    public String query;
+
+    @Param("1000000")
+    public int users;
+
+    private UserSearchIndex userSearchIndex;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        userSearchIndex = new UserSearchIndex(null, null);
+        ReflectionTestUtils.setField(userSearchIndex, "enabled", true);
+        ReflectionTestUtils.setField(userSearchIndex, "ready", true);
+        Random random = new Random(42);
+        List<User> chunk = new ArrayList<>(1000);
+        User sample = null;
+        for (long id = 1; id <= users; id++) {
+            User user = user(id, random);
+            chunk.add(user);
+            if (id == users / 2) {
+                sample = user;
+            }
+            if (chunk.size() == 1000 || id == users) {
+                userSearchIndex.onUsersChanged(new UsersChangedEvent(chunk, List.of(), List.of()));
+                chunk = new ArrayList<>(1000);
+            }
+        }
+        String first = sample.getFirstName().toLowerCase();
+        String last = sample.getLastName().toLowerCase();
+        text = Map.of(
+                "exact", first,
+                "prefix", last.substring(0, 3),
+                "typo", first.charAt(1) + first.substring(0, 1) + first.substring(2),
+                "two-words", first + " " + last.substring(0, 4),
+                "email", sample.getEmail().substring(0, sample.getEmail().indexOf('@') + 3)).get(query);
+    }
+
+    @Benchmark
+    public List<Long> search() {
+        return userSearchIndex.searchIds(text, 20);
+    }
+
+    private static User user(long id, Random random) {
+        User user = new User();
+        user.setId(id);
+        user.setFirstName(name(random, 2));
+        user.setLastName(name(random, 3));
+        user.setMaidenName(random.nextInt(4) == 0 ? name(random, 3) : null);
+        user.setUsername(user.getFirstName().toLowerCase() + id);
+        user.setEmail(user.getFirstName().toLowerCase() + "." + user.getLastName().toLowerCase() + id + "@"
+                + DOMAINS[random.nextInt(DOMAINS.length)]);
+        return user;
+    }
+
+    /**
+     * A capitalized name of the given number of syllables; the first syllable is drawn from a smaller set so
+     * names share prefixes.
+     */
+    private static String name(Random random, int syllables) {
+        StringBuilder name = new StringBuilder(SYLLABLES[random.nextInt(8)]);
+        for (int i = 1; i < syllables; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+}
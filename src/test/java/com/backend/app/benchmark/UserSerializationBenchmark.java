@@ -0,0 +1,61 @@
+package com.backend.app.benchmark;
+
+import com.backend.app.entity.User;
+import com.backend.app.support.TestUsers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of a fully populated user with its embedded bank, company, address, crypto and hair,
+ * using an ObjectMapper configured like Spring Boot's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private User user;
+    private byte[] userJson;
+    private List<User> page;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        user = TestUsers.user(42);
+        userJson = objectMapper.writeValueAsBytes(user);
+        page = TestUsers.generate(100);
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws IOException {
+        return objectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public User deserializeUser() throws IOException {
+        return objectMapper.readValue(userJson, User.class);
+    }
+
+    @Benchmark
+    public byte[] serializePageOf100() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,111 @@
+package com.backend.app.config;
+
+import com.backend.app.metrics.IngestionMetrics;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpClientConfigTest {
+
+    private HttpServer server;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private RestTemplate restTemplate;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/users", exchange -> {
+            byte[] body = gzip("{\"users\":[],\"total\":0}");
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(5)
+                .maxWaitDuration(Duration.ofSeconds(2))
+                .build());
+        HttpClientConfig config = new HttpClientConfig();
+        connectionManager = config.userApiConnectionManager(bulkheadRegistry);
+        httpClient = config.userApiHttpClient(connectionManager, bulkheadRegistry);
+        meterRegistry = new SimpleMeterRegistry();
+        restTemplate = config.restTemplate(httpClient, new IngestionMetrics(meterRegistry));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void connectionManager_SizesPoolFromBulkhead() {
+        assertEquals(5, connectionManager.getDefaultMaxPerRoute());
+        assertEquals(20, connectionManager.getMaxTotal());
+    }
+
+    @Test
+    void restTemplate_DecodesGzipAndReusesConnection() {
+        String url = "http://localhost:" + server.getAddress().getPort() + "/users";
+
+        assertEquals("{\"users\":[],\"total\":0}", restTemplate.getForObject(url, String.class));
+        assertEquals("{\"users\":[],\"total\":0}", restTemplate.getForObject(url, String.class));
+
+        assertEquals(1, connectionManager.getTotalStats().getAvailable());
+        assertEquals(0, connectionManager.getTotalStats().getLeased());
+    }
+
+    @Test
+    void restTemplate_TimesFetchAndDecodePhases() {
+        String url = "http://localhost:" + server.getAddress().getPort() + "/users";
+
+        restTemplate.getForObject(url, String.class);
+
+        assertEquals(1, meterRegistry.get("ingestion.phase").tag("phase", "fetch").timer().count());
+        assertEquals(1, meterRegistry.get("ingestion.phase").tag("phase", "decode").timer().count());
+        // Bytes are counted after gzip decoding
+        assertEquals("{\"users\":[],\"total\":0}".length(),
+                meterRegistry.get("ingestion.fetch.bytes").summary().totalAmount());
+    }
+
+    @Test
+    void userApiConnectionPoolMetrics_PublishesPoolGauges() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        new HttpClientConfig().userApiConnectionPoolMetrics(connectionManager).bindTo(registry);
+
+        assertEquals(5.0, registry.get("httpcomponents.httpclient.pool.route.max.default").tag("httpclient", "userApi").gauge().value());
+        assertNotNull(registry.get("httpcomponents.httpclient.pool.total.connections").tag("state", "leased").gauge());
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,54 @@
+package com.backend.app.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsConfigTest {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("users.metrics.slo.default", "100ms, 1s")
+                .withProperty("users.metrics.slo.routes.[/api/users/export]", "10s,1m");
+        registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(new MetricsConfig().userRoutesSloMeterFilter(environment));
+    }
+
+    @Test
+    void userRoutes_PublishDefaultSloBuckets() {
+        assertArrayEquals(new double[]{100, 1000}, sloMillis(timer("/api/users/{idOrSsn}")));
+    }
+
+    @Test
+    void userRoutes_UseRouteOverride() {
+        assertArrayEquals(new double[]{10_000, 60_000}, sloMillis(timer("/api/users/export")));
+    }
+
+    @Test
+    void otherRoutes_AreLeftAlone() {
+        assertEquals(0, sloMillis(timer("/actuator/prometheus")).length);
+    }
+
+    private Timer timer(String uri) {
+        Timer timer = Timer.builder("http.server.requests").tag("uri", uri).register(registry);
+        timer.record(Duration.ofMillis(50));
+        return timer;
+    }
+
+    private static double[] sloMillis(Timer timer) {
+        return Arrays.stream(timer.takeSnapshot().histogramCounts())
+                .mapToDouble(bucket -> bucket.bucket(TimeUnit.MILLISECONDS))
+                .toArray();
+    }
+}
@@ -1,18 +1,43 @@
 package com.backend.app.controller;
 
+import com.backend.app.dto.LoadResult;
+import com.backend.app.dto.NearbyUser;
+import com.backend.app.dto.UserAreaResult;
+import com.backend.app.dto.UserFilter;
+import com.backend.app.dto.UserLookupResult;
+import com.backend.app.dto.UserPage;
+import com.backend.app.dto.UserStats;
 import com.backend.app.entity.User;
 import com.backend.app.exception.ExternalApiException;
+import com.backend.app.exception.GlobalExceptionHandler;
+import com.backend.app.exception.InvalidExportFormatException;
+import com.backend.app.service.ExportFormat;
+import com.backend.app.service.UserAggregates;
+import com.backend.app.service.UserChangeFeed;
+import com.backend.app.service.UserColumnStore;
+import com.backend.app.service.UserExportService;
+import com.backend.app.service.UserLoadCoordinator;
+import com.backend.app.service.UserLookupService;
+import com.backend.app.service.UserGeoIndex;
+import com.backend.app.service.UserSearchIndex;
 import com.backend.app.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -22,22 +47,44 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 class UserControllerTest {
 
     private UserService userService;
+    private UserExportService userExportService;
+    private UserLoadCoordinator userLoadCoordinator;
+    private UserLookupService userLookupService;
+    private UserSearchIndex userSearchIndex;
+    private UserGeoIndex userGeoIndex;
+    private UserAggregates userAggregates;
+    private UserColumnStore userColumnStore;
+    private UserChangeFeed userChangeFeed;
     private UserController userController;
 
     @BeforeEach
     void setUp() {
         userService = mock(UserService.class);
-        userController = new UserController(userService);
+        userExportService = mock(UserExportService.class);
+        userLoadCoordinator = mock(UserLoadCoordinator.class);
+        userLookupService = mock(UserLookupService.class);
+        userSearchIndex = mock(UserSearchIndex.class);
+        userGeoIndex = mock(UserGeoIndex.class);
+        userAggregates = mock(UserAggregates.class);
+        userColumnStore = mock(UserColumnStore.class);
+        userChangeFeed = mock(UserChangeFeed.class);
+        userController = new UserController(userService, userExportService, userLoadCoordinator, userLookupService,
+                userSearchIndex, userGeoIndex, userAggregates, userColumnStore, userChangeFeed);
     }
 
     @Test
     void loadUsers_Success() throws ExternalApiException {
-        doNothing().when(userService).loadUsers();
+        LoadResult result = new LoadResult();
+        result.setInserted(2);
+        result.setUnchanged(5);
+        when(userLoadCoordinator.load()).thenReturn(result);
 
-        ResponseEntity<String> response = userController.loadUsers();
+        ResponseEntity<LoadResult> response = userController.loadUsers();
 
-        assertEquals("Users loaded successfully.", response.getBody());
-        verify(userService, times(1)).loadUsers();
+        assertEquals(LoadResult.COMPLETED, response.getBody().getStatus());
+        assertEquals(2, response.getBody().getInserted());
+        assertEquals(5, response.getBody().getUnchanged());
+        verify(userLoadCoordinator, times(1)).load();
     }
 
     @Test
@@ -91,6 +138,35 @@ class UserControllerTest {
         verify(userService, times(1)).getUsersSortedByAge(order);
     }
 
+    @Test
+    void getUsersSortedByAgePage_Success() {
+        UserPage mockPage = new UserPage(List.of(Map.of("firstName", "John")), "next");
+        when(userService.getUsersSortedByAgePage("asc", 1, null, List.of("firstName"))).thenReturn(mockPage);
+
+        UserPage page = userController.getUsersSortedByAgePage("asc", 1, null, List.of("firstName"));
+
+        assertEquals("next", page.getNextCursor());
+        assertEquals(1, page.getItems().size());
+        verify(userService, times(1)).getUsersSortedByAgePage("asc", 1, null, List.of("firstName"));
+    }
+
+    @Test
+    void exportUsers_StreamsCsv() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = userController.exportUsers("CSV");
+
+        assertEquals(MediaType.parseMediaType("text/csv"), response.getHeaders().getContentType());
+        assertEquals("attachment; filename=\"users.csv\"", response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        verify(userExportService, times(1)).export(ExportFormat.CSV, out);
+    }
+
+    @Test
+    void exportUsers_InvalidFormat() {
+        assertThrows(InvalidExportFormatException.class, () -> userController.exportUsers("xml"));
+        verifyNoInteractions(userExportService);
+    }
+
     @Test
     void getUserByIdOrSsn_Success() {
         String idOrSsn = "1";
@@ -104,5 +180,109 @@ class UserControllerTest {
         assertEquals("John", user.getFirstName());
         verify(userService, times(1)).getUserByIdOrSsn(idOrSsn);
     }
-}
 
+    @Test
+    void lookupUsers_Success() {
+        User mockUser = new User(1L, "John", "Doe", null, 30, "male", "john.doe@example.com", "1234567890", "john", "password", null, null, null, 180.0, 75.0, null, null, null, null, null, null, null, null, null, null, "user", null);
+        List<String> keys = List.of("1", "123-45-6789");
+        when(userLookupService.lookup(keys)).thenReturn(new UserLookupResult(List.of(mockUser), List.of("123-45-6789")));
+
+        UserLookupResult result = userController.lookupUsers(keys);
+
+        assertEquals(1, result.getUsers().size());
+        assertEquals(List.of("123-45-6789"), result.getNotFound());
+        verify(userLookupService, times(1)).lookup(keys);
+    }
+
+    @Test
+    void searchUsers_Success() {
+        User mockUser = new User(1L, "John", "Doe", null, 30, "male", "john.doe@example.com", "1234567890", "john", "password", null, null, null, 180.0, 75.0, null, null, null, null, null, null, null, null, null, null, "user", null);
+        when(userSearchIndex.search("jon do", 20)).thenReturn(List.of(mockUser));
+
+        List<User> users = userController.searchUsers("jon do", 20);
+
+        assertEquals(1, users.size());
+        verify(userSearchIndex, times(1)).search("jon do", 20);
+    }
+
+    @Test
+    void getUsersNear_Success() {
+        User mockUser = new User(1L, "John", "Doe", null, 30, "male", "john.doe@example.com", "1234567890", "john", "password", null, null, null, 180.0, 75.0, null, null, null, null, null, null, null, null, null, null, "user", null);
+        when(userGeoIndex.near(40.7, -74.0, 10, 100)).thenReturn(List.of(new NearbyUser(mockUser, 1.5)));
+
+        List<NearbyUser> users = userController.getUsersNear(40.7, -74.0, 10, 100);
+
+        assertEquals(1.5, users.get(0).getDistanceKm());
+        verify(userGeoIndex, times(1)).near(40.7, -74.0, 10, 100);
+    }
+
+    @Test
+    void getUsersWithin_Success() {
+        User mockUser = new User(1L, "John", "Doe", null, 30, "male", "john.doe@example.com", "1234567890", "john", "password", null, null, null, 180.0, 75.0, null, null, null, null, null, null, null, null, null, null, "user", null);
+        when(userGeoIndex.within(40, -75, 41, -73, 100)).thenReturn(new UserAreaResult(7, List.of(mockUser)));
+
+        UserAreaResult result = userController.getUsersWithin(40, -75, 41, -73, 100);
+
+        assertEquals(7, result.getTotal());
+        assertEquals(1, result.getUsers().size());
+        verify(userGeoIndex, times(1)).within(40, -75, 41, -73, 100);
+    }
+
+    @Test
+    void getUserStats_Success() {
+        UserStats stats = new UserStats(3, Map.of("role", Map.of("admin", 1L, "user", 2L)), Map.of());
+        when(userAggregates.stats()).thenReturn(stats);
+
+        assertSame(stats, userController.getUserStats());
+        verify(userAggregates, times(1)).stats();
+    }
+
+    @Test
+    void getUsersFiltered_Success() {
+        UserFilter filter = new UserFilter();
+        filter.setRole(List.of("admin"));
+        filter.setMinAge(30);
+        UserPage page = new UserPage(List.of(), "next");
+        when(userColumnStore.filter(filter, 50, null)).thenReturn(page);
+
+        assertSame(page, userController.getUsersFiltered(filter, 50, null));
+        verify(userColumnStore, times(1)).filter(filter, 50, null);
+    }
+
+    @Test
+    void streamUserChanges_ResumesFromSinceOrLastEventId() {
+        SseEmitter emitter = new SseEmitter();
+        when(userChangeFeed.subscribe(any())).thenReturn(emitter);
+
+        assertSame(emitter, userController.streamUserChanges(null, null));
+        userController.streamUserChanges(null, "7");
+        userController.streamUserChanges(3L, "7");
+
+        verify(userChangeFeed).subscribe(null);
+        verify(userChangeFeed).subscribe(7L);
+        verify(userChangeFeed).subscribe(3L);
+    }
+
+    @Test
+    void streamUserChanges_TreatsUnparseableLastEventIdAsNoResumePoint() {
+        userController.streamUserChanges(null, "not-a-sequence");
+
+        verify(userChangeFeed).subscribe(null);
+    }
+
+    @Test
+    void nonNumericParameters_AreBadRequests() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(userController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        mockMvc.perform(get("/api/users/changes").param("since", "abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid value 'abc' for parameter since."));
+        mockMvc.perform(get("/api/users/near").param("lat", "north").param("lng", "0").param("radiusKm", "5"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/users/search").param("q", "ann").param("limit", "ten"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(userChangeFeed, userGeoIndex, userSearchIndex);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.backend.app.dao;
+
+import com.backend.app.entity.Address;
+import com.backend.app.entity.Bank;
+import com.backend.app.entity.Company;
+import com.backend.app.entity.Coordinates;
+import com.backend.app.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(UserBatchWriter.class)
+class UserBatchWriterTest {
+
+    @Autowired
+    private UserBatchWriter userBatchWriter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void upsert_InsertsFlattenedUsers() {
+        User john = new User(1L, "John", "Doe", null, 30, "male", "john.doe@example.com", "1234567890", "john", "password", null, null, null, 180.0, 75.0, null, null, null, null, null, null, null, null, null, null, "user", null);
+        john.setSsn("123-45-6789");
+        Coordinates coordinates = new Coordinates();
+        coordinates.setLat(40.7);
+        coordinates.setLng(-74.0);
+        Address address = new Address();
+        address.setCity("New York");
+        address.setCoordinates(coordinates);
+        Company company = new Company();
+        company.setName("Acme");
+        company.setAddress(address);
+        Bank bank = new Bank();
+        bank.setCurrency("USD");
+        john.setCompany(company);
+        john.setBank(bank);
+
+        int written = userBatchWriter.upsert(List.of(john));
+
+        assertEquals(1, written);
+        User saved = userRepository.findBySsn("123-45-6789").orElseThrow();
+        assertEquals("John", saved.getFirstName());
+        assertEquals("Acme", saved.getCompany().getName());
+        assertEquals("New York", saved.getCompany().getAddress().getCity());
+        assertEquals(-74.0, saved.getCompany().getAddress().getCoordinates().getLng());
+        assertEquals("USD", saved.getBank().getCurrency());
+    }
+
+    @Test
+    void insert_PacksRowsIntoMultiRowStatements() {
+        List<User> users = new ArrayList<>();
+        for (long id = 1; id <= 123; id++) {
+            users.add(new User(id, "First" + id, "Last" + id, null, 30, "male", null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, "user", null));
+        }
+
+        int written = userBatchWriter.insert(users);
+
+        assertEquals(123, written);
+        assertEquals(123, userRepository.count());
+        assertEquals("Last123", userRepository.findById(123L).orElseThrow().getLastName());
+    }
+
+    @Test
+    void insert_RejectsExistingIds() {
+        List<User> users = List.of(
+                new User(1L, "John", "Doe", null, 30, "male", null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, "user", null)
+        );
+        userBatchWriter.insert(users);
+
+        assertThrows(DuplicateKeyException.class, () -> userBatchWriter.insert(users));
+    }
+
+    @Test
+    void upsert_UpdatesExistingRows() {
+        userBatchWriter.upsert(List.of(
+                new User(1L, "John", "Doe", null, 30, "male", "john.doe@example.com", "1234567890", "john", "password", null, null, null, 180.0, 75.0, null, null, null, null, null, null, null, null, null, null, "user", null)
+        ));
+        userBatchWriter.upsert(List.of(
+                new User(1L, "John", "Doe", null, 31, "male", "john.doe@example.com", "1234567890", "john", "password", null, null, null, 180.0, 75.0, null, null, null, null, null, null, null, null, null, null, "admin", null),
+                new User(2L, "Jane", "Smith", null, 25, "female", "jane.smith@example.com", "0987654321", "jane", "password", null, null, null, 170.0, 65.0, null, null, null, null, null, null, null, null, null, null, "admin", null)
+        ));
+
+        assertEquals(2, userRepository.count());
+        User john = userRepository.findById(1L).orElseThrow();
+        assertEquals(31, john.getAge());
+        assertEquals("admin", john.getRole());
+    }
+}
@@ -0,0 +1,101 @@
+package com.backend.app.dao;
+
+import com.backend.app.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class UserRepositoryCustomImplTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Ages with ties and missing values: id -> age
+        Object[][] users = {{1L, 30}, {2L, null}, {3L, 25}, {4L, 30}, {5L, null}, {6L, 40}, {7L, 25}};
+        for (Object[] row : users) {
+            User user = new User();
+            user.setId((Long) row[0]);
+            user.setAge((Integer) row[1]);
+            user.setFirstName("user" + row[0]);
+            user.setLastName("Doe");
+            user.setRole("user");
+            userRepository.save(user);
+        }
+        userRepository.flush();
+    }
+
+    @Test
+    void findPageOrderById_WalksAllPages() {
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), walkById(3));
+    }
+
+    @Test
+    void findPageOrderByAge_AscendingPutsMissingAgesFirst() {
+        assertEquals(List.of(2L, 5L, 3L, 7L, 1L, 4L, 6L), walkByAge(true, 2));
+        assertEquals(List.of(2L, 5L, 3L, 7L, 1L, 4L, 6L), walkByAge(true, 1));
+    }
+
+    @Test
+    void findPageOrderByAge_DescendingPutsMissingAgesLast() {
+        assertEquals(List.of(6L, 4L, 1L, 7L, 3L, 5L, 2L), walkByAge(false, 2));
+        assertEquals(List.of(6L, 4L, 1L, 7L, 3L, 5L, 2L), walkByAge(false, 4));
+    }
+
+    @Test
+    void findPageOrderById_ProjectsRequestedFields() {
+        List<?> rows = userRepository.findPageOrderById(5L, 10, List.of("firstName"));
+
+        assertEquals(2, rows.size());
+        assertEquals(Map.of("id", 6L, "age", 40, "firstName", "user6"), rows.get(0));
+    }
+
+    @Test
+    void projectableFields_ExcludesEmbeddedObjects() {
+        List<String> fields = userRepository.projectableFields();
+
+        assertTrue(fields.containsAll(List.of("id", "age", "firstName", "ssn", "role")));
+        assertFalse(fields.contains("company"));
+        assertFalse(fields.contains("bank"));
+    }
+
+    private List<Long> walkById(int limit) {
+        List<Long> ids = new ArrayList<>();
+        Long afterId = null;
+        List<?> page;
+        do {
+            page = userRepository.findPageOrderById(afterId, limit, List.of());
+            for (Object row : page) {
+                afterId = ((User) row).getId();
+                ids.add(afterId);
+            }
+        } while (page.size() == limit);
+        return ids;
+    }
+
+    private List<Long> walkByAge(boolean ascending, int limit) {
+        List<Long> ids = new ArrayList<>();
+        Integer afterAge = null;
+        Long afterId = null;
+        List<?> page;
+        do {
+            page = userRepository.findPageOrderByAge(ascending, afterAge, afterId, limit, List.of());
+            for (Object row : page) {
+                User user = (User) row;
+                afterAge = user.getAge();
+                afterId = user.getId();
+                ids.add(afterId);
+            }
+        } while (page.size() == limit);
+        return ids;
+    }
+}
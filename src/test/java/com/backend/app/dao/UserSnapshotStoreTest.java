@@ -0,0 +1,138 @@
+package com.backend.app.dao;
+
+import com.backend.app.entity.User;
+import com.backend.app.support.TestUsers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({UserSnapshotStore.class, UserBatchWriter.class})
+class UserSnapshotStoreTest {
+
+    @Autowired
+    private UserSnapshotStore userSnapshotStore;
+
+    @Autowired
+    private UserBatchWriter userBatchWriter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void restore_RecreatesUsersAndFingerprints() throws IOException {
+        List<User> users = new ArrayList<>();
+        for (long id = 1; id <= 120; id++) {
+            users.add(TestUsers.user(id));
+        }
+        User sparse = new User(121L, "Ann", "Lee", null, null, null, "ann@example.com", null, "ann", "password", null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, "user", null);
+        users.add(sparse);
+        userBatchWriter.insert(users);
+        jdbcTemplate.update(UserFingerprintStore.MERGE_SQL, 1L, -42L, 3L);
+        Path file = dir.resolve("users.snapshot");
+
+        assertEquals(121, userSnapshotStore.write(file));
+        clearTables();
+        long restored = userSnapshotStore.restore(file);
+
+        assertEquals(121, restored);
+        User john = userRepository.findById(7L).orElseThrow();
+        assertEquals(TestUsers.user(7L), john);
+        User ann = userRepository.findById(121L).orElseThrow();
+        assertNull(ann.getAge());
+        assertNull(ann.getCompany());
+        assertEquals(Map.of("fingerprint", -42L, "sync_run", 3L),
+                jdbcTemplate.queryForMap("SELECT fingerprint, sync_run FROM user_fingerprints WHERE id = 1"));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_fingerprints", Integer.class));
+    }
+
+    @Test
+    void restore_RejectsCorruptSnapshotWithoutWriting() throws IOException {
+        userBatchWriter.insert(List.of(TestUsers.user(1L), TestUsers.user(2L)));
+        Path file = dir.resolve("users.snapshot");
+        userSnapshotStore.write(file);
+        clearTables();
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x7f;
+        Files.write(file, bytes);
+
+        assertThrows(IOException.class, () -> userSnapshotStore.restore(file));
+        assertEquals(0, userRepository.count());
+    }
+
+    @Test
+    void restore_RejectsWrongRowCountWithoutWriting() throws IOException {
+        userBatchWriter.insert(List.of(TestUsers.user(1L), TestUsers.user(2L)));
+        Path file = dir.resolve("users.snapshot");
+        userSnapshotStore.write(file);
+        clearTables();
+        Path manifest = UserSnapshotStore.manifest(file);
+        Files.writeString(manifest, Files.readString(manifest).replace("rows=2", "rows=3"));
+
+        assertThrows(IOException.class, () -> userSnapshotStore.restore(file));
+        assertEquals(0, userRepository.count());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_fingerprints", Integer.class));
+    }
+
+    @Test
+    void restore_RejectsSnapshotWithoutManifest() throws IOException {
+        userBatchWriter.insert(List.of(TestUsers.user(1L)));
+        Path file = dir.resolve("users.snapshot");
+        userSnapshotStore.write(file);
+        clearTables();
+        Files.delete(UserSnapshotStore.manifest(file));
+
+        assertThrows(IOException.class, () -> userSnapshotStore.restore(file));
+        assertEquals(0, userRepository.count());
+    }
+
+    @Test
+    void restore_EmptiesTablesWhenAnInsertFails() throws IOException {
+        userBatchWriter.insert(TestUsers.generate(120));
+        Path file = dir.resolve("users.snapshot");
+        userSnapshotStore.write(file);
+        clearTables();
+        userBatchWriter.insert(List.of(TestUsers.user(100L)));
+
+        assertThrows(RuntimeException.class, () -> userSnapshotStore.restore(file));
+        assertEquals(0, userRepository.count());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_fingerprints", Integer.class));
+    }
+
+    @Test
+    void write_ReplacesPreviousSnapshot() throws IOException {
+        Path file = dir.resolve("snapshots").resolve("users.snapshot");
+        userBatchWriter.insert(List.of(TestUsers.user(1L)));
+        userSnapshotStore.write(file);
+        userBatchWriter.insert(List.of(TestUsers.user(2L)));
+
+        assertEquals(2, userSnapshotStore.write(file));
+        try (var files = Files.list(file.getParent())) {
+            assertEquals(Set.of(file, UserSnapshotStore.manifest(file)), files.collect(Collectors.toSet()));
+        }
+    }
+
+    private void clearTables() {
+        userSnapshotStore.clear();
+    }
+}
@@ -0,0 +1,103 @@
+package com.backend.app.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Open-loop HTTP load generator. Requests are started on a fixed schedule at the target rate, each on its own
+ * virtual thread, and latency is measured from the scheduled start. A slow server therefore shows up as higher
+ * latency instead of silently lowering the offered rate.
+ */
+public class LoadDriver {
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+    private final Duration timeout;
+
+    /**
+     * @param baseUrl Application url, e.g. {@code http://localhost:8080}
+     * @param timeout Per-request timeout; timed out requests count as errors
+     */
+    public LoadDriver(String baseUrl, Duration timeout) {
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+    }
+
+    /**
+     * A named request in the traffic mix, picked in proportion to its weight.
+     *
+     * @param name   Name the latencies are reported under
+     * @param weight Relative share of the traffic
+     * @param path   Builds the request path, relative to the base url, from a random source
+     */
+    public record Endpoint(String name, int weight, Function<ThreadLocalRandom, String> path) {
+    }
+
+    /**
+     * Send GET requests from the mix at the given rate and wait for all of them to complete.
+     *
+     * @param mix      Endpoints to call
+     * @param rps      Target requests per second
+     * @param duration How long to keep starting requests
+     * @return Latencies and errors per endpoint; any status other than 2xx is an error
+     */
+    public LoadReport run(List<Endpoint> mix, int rps, Duration duration) {
+        int totalWeight = mix.stream().mapToInt(Endpoint::weight).sum();
+        long intervalNanos = 1_000_000_000L / rps;
+        long count = duration.toNanos() / intervalNanos;
+        LoadReport report = new LoadReport(duration);
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < count; i++) {
+                long scheduled = start + i * intervalNanos;
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Endpoint endpoint = pick(mix, totalWeight);
+                executor.submit(() -> send(endpoint, scheduled, report));
+            }
+        }
+        return report;
+    }
+
+    private void send(Endpoint endpoint, long scheduled, LoadReport report) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + endpoint.path().apply(ThreadLocalRandom.current())))
+                .timeout(timeout)
+                .build();
+        boolean error;
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            error = response.statusCode() / 100 != 2;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = true;
+        } catch (Exception e) {
+            error = true;
+        }
+        report.record(endpoint.name(), System.nanoTime() - scheduled, error);
+    }
+
+    private static Endpoint pick(List<Endpoint> mix, int totalWeight) {
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Endpoint endpoint : mix) {
+            ticket -= endpoint.weight();
+            if (ticket < 0) {
+                return endpoint;
+            }
+        }
+        return mix.get(mix.size() - 1);
+    }
+}
@@ -0,0 +1,92 @@
+package com.backend.app.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Latencies and errors recorded per endpoint during a load run.
+ */
+public class LoadReport {
+    private final Map<String, EndpointStats> endpoints = new ConcurrentSkipListMap<>();
+    private final Duration duration;
+
+    public LoadReport(Duration duration) {
+        this.duration = duration;
+    }
+
+    public void record(String endpoint, long latencyNanos, boolean error) {
+        endpoints.computeIfAbsent(endpoint, name -> new EndpointStats()).record(latencyNanos, error);
+    }
+
+    public EndpointStats get(String endpoint) {
+        return endpoints.get(endpoint);
+    }
+
+    public Map<String, EndpointStats> getEndpoints() {
+        return endpoints;
+    }
+
+    public long getRequests() {
+        return endpoints.values().stream().mapToLong(EndpointStats::getRequests).sum();
+    }
+
+    public long getErrors() {
+        return endpoints.values().stream().mapToLong(EndpointStats::getErrors).sum();
+    }
+
+    /**
+     * One line per endpoint with request and error counts, throughput and p50/p99/p999/max latency.
+     */
+    public String format() {
+        StringBuilder out = new StringBuilder(String.format("%-24s %8s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        double seconds = duration.toNanos() / 1e9;
+        endpoints.forEach((name, stats) -> out.append(String.format("%-24s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                name, stats.getRequests(), stats.getErrors(), stats.getRequests() / seconds,
+                stats.percentileMillis(0.5), stats.percentileMillis(0.99), stats.percentileMillis(0.999),
+                stats.percentileMillis(1.0))));
+        return out.toString();
+    }
+
+    public static class EndpointStats {
+        private long[] latencies = new long[1024];
+        private int requests;
+        private int errors;
+
+        synchronized void record(long latencyNanos, boolean error) {
+            if (requests == latencies.length) {
+                latencies = Arrays.copyOf(latencies, requests * 2);
+            }
+            latencies[requests++] = latencyNanos;
+            if (error) {
+                errors++;
+            }
+        }
+
+        public synchronized long getRequests() {
+            return requests;
+        }
+
+        public synchronized long getErrors() {
+            return errors;
+        }
+
+        /**
+         * Nearest-rank percentile of the recorded latencies.
+         *
+         * @param quantile Between 0 and 1
+         * @return Latency in milliseconds, 0 when nothing was recorded
+         */
+        public synchronized double percentileMillis(double quantile) {
+            if (requests == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, requests);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.backend.app.loadtest;
+
+import com.backend.app.dto.UsersResponse;
+import com.backend.app.entity.User;
+import com.backend.app.support.TestUsers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the external users API. Serves {@code GET /users?limit=&skip=} pages of generated users
+ * in the {@link UsersResponse} shape; without a limit the whole feed is returned in one response.
+ * The feed size, per-request latency and the share of requests answered with 503 can be changed while running.
+ */
+public class StubUsersApi implements AutoCloseable {
+    private final HttpServer server;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private volatile int total;
+    private volatile Duration latency = Duration.ZERO;
+    private volatile double failureRate;
+
+    public StubUsersApi(ObjectMapper objectMapper, int total) throws IOException {
+        this.objectMapper = objectMapper;
+        this.total = total;
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/users", this::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    /**
+     * Url to configure as {@code external.api.url}.
+     */
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort() + "/users";
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    /**
+     * Delay every response by the given time.
+     */
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Answer the given share of requests, between 0 and 1, with 503 Service Unavailable.
+     */
+    public void setFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            if (!latency.isZero()) {
+                Thread.sleep(latency);
+            }
+            if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                failures.incrementAndGet();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+            int feed = total;
+            int skip = Math.min(feed, Integer.parseInt(query.getOrDefault("skip", "0")));
+            int limit = Integer.parseInt(query.getOrDefault("limit", String.valueOf(feed)));
+            List<User> users = new ArrayList<>();
+            for (int id = skip + 1; id <= Math.min(feed, skip + limit); id++) {
+                users.add(TestUsers.user(id));
+            }
+            UsersResponse page = new UsersResponse();
+            page.setUsers(users);
+            page.setTotal(feed);
+            page.setSkip(skip);
+            page.setLimit(limit);
+
+            byte[] body = objectMapper.writeValueAsBytes(page);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery != null) {
+            for (String pair : rawQuery.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    params.put(pair.substring(0, eq), pair.substring(eq + 1));
+                }
+            }
+        }
+        return params;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,190 @@
+package com.backend.app.loadtest;
+
+import com.backend.app.dto.LoadResult;
+import com.backend.app.support.TestUsers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end load tests against a running application whose external API is a local {@link StubUsersApi}.
+ * Excluded from the default build; run with {@code mvn -Ploadtest test}. The feed size, request rate and run
+ * length can be set with {@code -Dloadtest.users}, {@code -Dloadtest.rps} and {@code -Dloadtest.seconds}.
+ * Reports are written to target/load-test.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "external.api.paged=true",
+        "external.api.page-size=100",
+        "resilience4j.circuitbreaker.instances.userApiCircuitBreaker.slidingWindowSize=10",
+        "resilience4j.circuitbreaker.instances.userApiCircuitBreaker.minimumNumberOfCalls=5",
+        "resilience4j.circuitbreaker.instances.userApiCircuitBreaker.waitDurationInOpenState=2s",
+        "resilience4j.circuitbreaker.instances.userApiCircuitBreaker.permittedNumberOfCallsInHalfOpenState=1",
+        "resilience4j.retry.instances.loadUsersRetry.waitDuration=100ms",
+        "logging.level.com.backend.app=WARN",
+        "logging.file.name="
+})
+class UsersApiLoadTest {
+    private static final int USERS = Integer.getInteger("loadtest.users", 10_000);
+    private static final int RPS = Integer.getInteger("loadtest.rps", 50);
+    private static final Duration RUN = Duration.ofSeconds(Integer.getInteger("loadtest.seconds", 20));
+    private static final Duration WARM_UP = Duration.ofSeconds(5);
+    private static final String CIRCUIT_BREAKER = "userApiCircuitBreaker";
+    private static final String RETRY = "loadUsersRetry";
+
+    private static StubUsersApi stub;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private RetryRegistry retryRegistry;
+
+    @DynamicPropertySource
+    static void externalApi(DynamicPropertyRegistry registry) throws IOException {
+        stub = new StubUsersApi(new ObjectMapper(), USERS);
+        registry.add("external.api.url", stub::url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        stub.setTotal(USERS);
+        stub.setLatency(Duration.ZERO);
+        stub.setFailureRate(0);
+        circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER).reset();
+    }
+
+    @Test
+    void mixedReadTraffic_ReportsLatencyPerEndpoint() throws IOException {
+        assertEquals(LoadResult.COMPLETED, load().getBody().getStatus());
+
+        List<LoadDriver.Endpoint> mix = List.of(
+                new LoadDriver.Endpoint("GET /{id}", 30, random -> "/api/users/" + (1 + random.nextInt(USERS))),
+                new LoadDriver.Endpoint("GET /{ssn}", 15, random -> "/api/users/" + TestUsers.ssn(1 + random.nextInt(USERS))),
+                new LoadDriver.Endpoint("GET /{id} missing", 5, random -> "/api/users/" + (USERS + 1 + random.nextInt(USERS))),
+                new LoadDriver.Endpoint("GET ?limit", 15, random -> "/api/users?limit=100"),
+                new LoadDriver.Endpoint("GET /sort?limit", 10, random -> "/api/users/sort?limit=100&order="
+                        + (random.nextBoolean() ? "asc" : "desc")),
+                new LoadDriver.Endpoint("GET /role/{role}", 10, random -> "/api/users/role/"
+                        + List.of("admin", "user", "moderator").get(random.nextInt(3))),
+                new LoadDriver.Endpoint("GET /sort", 1, random -> "/api/users/sort"),
+                new LoadDriver.Endpoint("GET /", 1, random -> "/api/users"),
+                new LoadDriver.Endpoint("GET /export", 1, random -> "/api/users/export?format="
+                        + (random.nextBoolean() ? "ndjson" : "csv")));
+        LoadDriver driver = new LoadDriver("http://localhost:" + port, Duration.ofSeconds(30));
+
+        driver.run(mix, RPS, WARM_UP);
+        LoadReport report = driver.run(mix, RPS, RUN);
+        publish("mixed-reads", report);
+
+        // Unknown users are answered with 404, which the driver counts as errors
+        long expectedErrors = report.get("GET /{id} missing").getRequests();
+        assertTrue(report.getRequests() >= RPS * RUN.toSeconds() * 9 / 10, report.format());
+        assertTrue(report.getErrors() - expectedErrors <= report.getRequests() / 100, report.format());
+    }
+
+    @Test
+    void loadUsers_SlowAndFlakyUpstream_AlwaysAnswers() throws IOException {
+        stub.setLatency(Duration.ofMillis(20));
+        stub.setFailureRate(0.01);
+        Retry.Metrics retry = retryRegistry.retry(RETRY).getMetrics();
+        long retriedBefore = retry.getNumberOfSuccessfulCallsWithRetryAttempt() + retry.getNumberOfFailedCallsWithRetryAttempt();
+
+        long failuresBefore = stub.getFailures();
+        long[] latencies = new long[10];
+        boolean[] failed = new boolean[10];
+        long start = System.nanoTime();
+        for (int i = 0; i < latencies.length; i++) {
+            long callStart = System.nanoTime();
+            ResponseEntity<LoadResult> response = load();
+            latencies[i] = System.nanoTime() - callStart;
+            failed[i] = !LoadResult.COMPLETED.equals(response.getBody().getStatus());
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+        }
+        LoadReport report = new LoadReport(Duration.ofNanos(System.nanoTime() - start));
+        for (int i = 0; i < latencies.length; i++) {
+            report.record("POST /load", latencies[i], failed[i]);
+        }
+        long retried = retry.getNumberOfSuccessfulCallsWithRetryAttempt() + retry.getNumberOfFailedCallsWithRetryAttempt()
+                - retriedBefore;
+        publish("flaky-upstream", report.format() + String.format("completed=%d failed=%d upstream 503s=%d retried calls=%d "
+                + "circuit=%s%n", report.getRequests() - report.getErrors(), report.getErrors(), stub.getFailures() - failuresBefore, retried,
+                circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER).getState()));
+
+        assertTrue(stub.getFailures() > failuresBefore);
+    }
+
+    @Test
+    void loadUsers_UpstreamDown_OpensCircuitAndRecovers() throws Exception {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER);
+        stub.setFailureRate(1);
+
+        for (int i = 0; i < 10 && circuitBreaker.getState() != CircuitBreaker.State.OPEN; i++) {
+            assertEquals(LoadResult.FAILED, load().getBody().getStatus());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        // While open, loads fail fast without calling the upstream
+        long requests = stub.getRequests();
+        long start = System.nanoTime();
+        assertEquals(LoadResult.FAILED, load().getBody().getStatus());
+        long openMillis = (System.nanoTime() - start) / 1_000_000;
+        assertEquals(requests, stub.getRequests());
+
+        stub.setFailureRate(0);
+        Thread.sleep(circuitBreaker.getCircuitBreakerConfig().getWaitIntervalFunctionInOpenState().apply(1) + 100);
+        LoadResult recovered = load().getBody();
+        publish("upstream-down", String.format("open-circuit load=%d ms, recovered=%s, circuit=%s%n",
+                openMillis, recovered.getStatus(), circuitBreaker.getState()));
+
+        assertEquals(LoadResult.COMPLETED, recovered.getStatus());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    private ResponseEntity<LoadResult> load() {
+        return restTemplate.postForEntity("/api/users/load", null, LoadResult.class);
+    }
+
+    private static void publish(String name, LoadReport report) throws IOException {
+        publish(name, report.format());
+    }
+
+    private static void publish(String name, String report) throws IOException {
+        Path dir = Path.of("target", "load-test");
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve(name + ".txt"), report);
+    }
+}
@@ -0,0 +1,79 @@
+package com.backend.app.metrics;
+
+import com.backend.app.dto.LoadResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestionMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private IngestionMetrics ingestionMetrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        ingestionMetrics = new IngestionMetrics(registry);
+    }
+
+    @Test
+    void startLoad_CountsLoadAsActiveUntilStopped() {
+        IngestionMetrics.Phase load = ingestionMetrics.startLoad(true);
+
+        assertEquals(1, registry.get("ingestion.loads.active").tag("mode", "paged").longTaskTimer().activeTasks());
+        load.stop(10);
+        assertEquals(0, registry.get("ingestion.loads.active").tag("mode", "paged").longTaskTimer().activeTasks());
+    }
+
+    @Test
+    void recordPersisted_CountsRowsAndThroughput() {
+        LoadResult chunk = new LoadResult();
+        chunk.setInserted(3);
+        chunk.setUpdated(2);
+        chunk.setUnchanged(5);
+
+        ingestionMetrics.recordPersisted(chunk, 500_000_000L);
+
+        assertEquals(3.0, registry.get("ingestion.persist.rows").tag("result", "inserted").counter().count());
+        assertEquals(2.0, registry.get("ingestion.persist.rows").tag("result", "updated").counter().count());
+        assertEquals(5.0, registry.get("ingestion.persist.rows").tag("result", "unchanged").counter().count());
+        assertEquals(20.0, registry.get("ingestion.persist.rows.per.second").summary().max());
+    }
+
+    @Test
+    void start_RejectsUnknownPhase() {
+        assertThrows(IllegalArgumentException.class, () -> ingestionMetrics.start("parse"));
+    }
+
+    @Test
+    void phase_EmitsJfrEventWhenRecording() throws Exception {
+        Path file = Files.createTempFile("ingestion", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(IngestionPhaseEvent.NAME);
+            recording.start();
+            ingestionMetrics.start(IngestionMetrics.VALIDATE).stop(100);
+            ingestionMetrics.start(IngestionMetrics.DECODE).stop(0, 2048);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+
+        assertEquals(2, events.size());
+        assertEquals("validate", events.get(0).getString("phase"));
+        assertEquals(100, events.get(0).getLong("items"));
+        assertEquals("decode", events.get(1).getString("phase"));
+        assertEquals(2048, events.get(1).getLong("bytes"));
+        assertEquals(1, registry.get("ingestion.phase").tag("phase", "validate").timer().count());
+    }
+}
@@ -0,0 +1,63 @@
+package com.backend.app.metrics;
+
+import com.backend.app.dao.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@ExtendWith(OutputCaptureExtension.class)
+class SlowQueryLogTest {
+
+    private SlowQueryLog slowQueryLog;
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        slowQueryLog = new SlowQueryLog();
+        AspectJProxyFactory factory = new AspectJProxyFactory(mock(UserRepository.class));
+        factory.addAspect(slowQueryLog);
+        userRepository = factory.getProxy();
+    }
+
+    @Test
+    void slowQuery_LogsMethodAndRedactsSsn(CapturedOutput output) {
+        ReflectionTestUtils.setField(slowQueryLog, "threshold", Duration.ZERO);
+
+        userRepository.findBySsn("123-45-6789");
+        userRepository.findPageOrderById(7L, 100, List.of("email"));
+
+        assertTrue(output.getOut().contains("Slow query UserRepository.findBySsn(ssn=" + SlowQueryLog.REDACTED + ")"),
+                output.getOut());
+        assertFalse(output.getOut().contains("123-45-6789"));
+        assertTrue(output.getOut().contains("findPageOrderById(afterId=7, limit=100, fields=List[size=1])"),
+                output.getOut());
+    }
+
+    @Test
+    void slowQuery_LogsQueryOfAnnotatedMethod(CapturedOutput output) {
+        ReflectionTestUtils.setField(slowQueryLog, "threshold", Duration.ZERO);
+
+        userRepository.streamAllByOrderById();
+
+        assertTrue(output.getOut().contains("[select u from User u order by u.id]"), output.getOut());
+    }
+
+    @Test
+    void fastQuery_IsNotLogged(CapturedOutput output) {
+        ReflectionTestUtils.setField(slowQueryLog, "threshold", Duration.ofMinutes(1));
+
+        userRepository.findBySsn("123-45-6789");
+
+        assertFalse(output.getOut().contains("Slow query"));
+    }
+}
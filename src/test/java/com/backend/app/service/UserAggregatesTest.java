@@ -0,0 +1,184 @@
+package com.backend.app.service;
+
+import com.backend.app.dao.UserBatchWriter;
+import com.backend.app.dto.UserStats;
+import com.backend.app.entity.User;
+import com.backend.app.event.UsersChangedEvent;
+import com.backend.app.exception.FeatureUnavailableException;
+import com.backend.app.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({UserAggregates.class, UserBatchWriter.class})
+@TestPropertySource(properties = "users.stats.enabled=true")
+class UserAggregatesTest {
+
+    /** Stats field to users column for the categorical fields. */
+    private static final Map<String, String> CATEGORY_COLUMNS = Map.of("role", "role", "gender", "gender",
+            "bloodGroup", "blood_group", "department", "department", "currency", "currency");
+
+    private record Bounds(double min, double width, int buckets) {
+    }
+
+    private static final Map<String, Bounds> HISTOGRAM_BOUNDS = Map.of("age", new Bounds(0, 10, 10),
+            "height", new Bounds(140, 10, 8), "weight", new Bounds(40, 10, 10));
+
+    @Autowired
+    private UserAggregates userAggregates;
+
+    @Autowired
+    private UserBatchWriter userBatchWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Built empty when the test context started
+        ReflectionTestUtils.setField(userAggregates, "ready", false);
+    }
+
+    @Test
+    void stats_MatchesRecountAfterBuildAndIncrementalChunks() {
+        userBatchWriter.insert(users(1, 300));
+        userAggregates.rebuild();
+        assertEquals(recount(), userAggregates.stats());
+
+        // A chunk of inserts, a chunk rewriting users with other values and a chunk of deletes
+        List<User> inserted = users(301, 500);
+        userBatchWriter.insert(inserted);
+        userAggregates.onUsersChanged(new UsersChangedEvent(inserted, List.of(), List.of()));
+        List<User> updated = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            User user = TestUsers.user(id);
+            user.setRole("manager");
+            user.setAge(id % 2 == 0 ? null : 120);
+            user.setHeight(139.9);
+            user.getBank().setCurrency(null);
+            user.getCompany().setDepartment("Department" + id % 7);
+            updated.add(user);
+        }
+        userBatchWriter.upsert(updated);
+        userAggregates.onUsersChanged(new UsersChangedEvent(List.of(), updated, List.of()));
+        List<Long> deleted = LongStream.rangeClosed(401, 450).boxed().toList();
+        deleted.forEach(id -> jdbcTemplate.update("DELETE FROM users WHERE id = ?", id));
+        userAggregates.onUsersChanged(UsersChangedEvent.deleted(deleted));
+
+        UserStats stats = userAggregates.stats();
+        assertEquals(recount(), stats);
+        assertEquals(450, stats.getTotal());
+        assertEquals(100L, stats.getCounts().get("role").get("manager"));
+        assertEquals(100L, stats.getCounts().get("currency").get(UserAggregates.UNKNOWN));
+    }
+
+    @Test
+    void stats_BucketsValuesAtBoundsAndWithoutValue() {
+        insert(1, 9, 139.99);
+        insert(2, 10, 140.0);
+        insert(3, 99, 219.99);
+        insert(4, 100, 220.0);
+        insert(5, null, null);
+        userAggregates.rebuild();
+
+        UserStats.Histogram age = userAggregates.stats().getHistograms().get("age");
+        assertEquals(new UserStats.Bucket(null, 0.0, 0), age.getBuckets().get(0));
+        assertEquals(new UserStats.Bucket(0.0, 10.0, 1), age.getBuckets().get(1));
+        assertEquals(new UserStats.Bucket(10.0, 20.0, 1), age.getBuckets().get(2));
+        assertEquals(new UserStats.Bucket(90.0, 100.0, 1), age.getBuckets().get(10));
+        assertEquals(new UserStats.Bucket(100.0, null, 1), age.getBuckets().get(11));
+        assertEquals(1, age.getUnknown());
+
+        UserStats.Histogram height = userAggregates.stats().getHistograms().get("height");
+        assertEquals(new UserStats.Bucket(null, 140.0, 1), height.getBuckets().get(0));
+        assertEquals(new UserStats.Bucket(140.0, 150.0, 1), height.getBuckets().get(1));
+        assertEquals(new UserStats.Bucket(210.0, 220.0, 1), height.getBuckets().get(8));
+        assertEquals(new UserStats.Bucket(220.0, null, 1), height.getBuckets().get(9));
+        assertEquals(recount(), userAggregates.stats());
+    }
+
+    @Test
+    void stats_UnavailableUntilBuiltOrWhenDisabled() {
+        insert(1, 30, 170.0);
+
+        assertThrows(FeatureUnavailableException.class, () -> userAggregates.stats());
+        userAggregates.rebuild();
+        assertEquals(1, userAggregates.stats().getTotal());
+
+        ReflectionTestUtils.setField(userAggregates, "enabled", false);
+        try {
+            assertThrows(FeatureUnavailableException.class, () -> userAggregates.stats());
+        } finally {
+            ReflectionTestUtils.setField(userAggregates, "enabled", true);
+        }
+    }
+
+    /**
+     * Statistics computed from the table with one GROUP BY query per field, independent of the counters. Unlike the
+     * counters, a field with more than 1022 distinct values does not report the rest as "other".
+     */
+    private UserStats recount() {
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        Map<String, Map<String, Long>> counts = new HashMap<>();
+        CATEGORY_COLUMNS.forEach((name, column) -> {
+            Map<String, Long> byValue = new TreeMap<>();
+            jdbcTemplate.query("SELECT " + column + ", COUNT(*) FROM users GROUP BY " + column,
+                    (RowCallbackHandler) rs -> byValue.merge(
+                            Optional.ofNullable(rs.getString(1)).orElse(UserAggregates.UNKNOWN), rs.getLong(2), Long::sum));
+            counts.put(name, byValue);
+        });
+        Map<String, UserStats.Histogram> histograms = new HashMap<>();
+        HISTOGRAM_BOUNDS.forEach((column, bounds) -> {
+            // 0 is no value, 1 below the first bound, 2..buckets + 1 the buckets and the last above the last bound
+            long[] byBucket = new long[bounds.buckets() + 3];
+            String offset = "FLOOR((CAST(" + column + " AS DOUBLE PRECISION) - " + bounds.min() + ") / "
+                    + bounds.width() + ")";
+            jdbcTemplate.query("SELECT b, COUNT(*) FROM (SELECT " + offset + " AS b FROM users) t GROUP BY b",
+                    (RowCallbackHandler) rs -> {
+                        double b = rs.getDouble(1);
+                        int bucket = rs.wasNull() ? 0 : b < 0 ? 1 : (int) Math.min(b, bounds.buckets()) + 2;
+                        byBucket[bucket] += rs.getLong(2);
+                    });
+            List<UserStats.Bucket> buckets = new ArrayList<>();
+            buckets.add(new UserStats.Bucket(null, bounds.min(), byBucket[1]));
+            for (int j = 0; j < bounds.buckets(); j++) {
+                buckets.add(new UserStats.Bucket(bounds.min() + j * bounds.width(),
+                        bounds.min() + (j + 1) * bounds.width(), byBucket[j + 2]));
+            }
+            buckets.add(new UserStats.Bucket(bounds.min() + bounds.buckets() * bounds.width(), null,
+                    byBucket[bounds.buckets() + 2]));
+            histograms.put(column, new UserStats.Histogram(buckets, byBucket[0]));
+        });
+        return new UserStats(total == null ? 0 : total, counts, histograms);
+    }
+
+    private static List<User> users(long from, long to) {
+        List<User> users = new ArrayList<>();
+        for (long id = from; id <= to; id++) {
+            users.add(TestUsers.user(id));
+        }
+        return users;
+    }
+
+    private void insert(long id, Integer age, Double height) {
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, age, height) VALUES (?, 'John', 'Doe', ?, ?)",
+                id, age, height);
+    }
+}
@@ -0,0 +1,96 @@
+package com.backend.app.service;
+
+import com.backend.app.dao.UserBatchWriter;
+import com.backend.app.dao.UserFingerprintStore;
+import com.backend.app.dao.UserRepository;
+import com.backend.app.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a test transaction so chunk writes commit and the after-commit eviction fires.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({UserCacheInvalidator.class, UserChunkWriter.class, UserBatchWriter.class, UserFingerprintStore.class})
+class UserCacheInvalidatorTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserChunkWriter userChunkWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_fingerprints");
+        jdbcTemplate.update("DELETE FROM users");
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void findById_CachesMissesUntilUserIsInserted() {
+        assertTrue(userRepository.findById(1L).isEmpty());
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name) VALUES (1, 'John', 'Doe')");
+
+        // Written behind the cache's back, so the cached miss is still served
+        assertTrue(userRepository.findById(1L).isEmpty());
+
+        userChunkWriter.write(List.of(john("123-45-6789")), userChunkWriter.beginSyncRun());
+
+        assertEquals("John", userRepository.findById(1L).orElseThrow().getFirstName());
+    }
+
+    @Test
+    void findBySsn_IsRefreshedWhenUserIsUpdated() {
+        userChunkWriter.write(List.of(john("123-45-6789")), userChunkWriter.beginSyncRun());
+        assertEquals(1L, userRepository.findBySsn("123-45-6789").orElseThrow().getId());
+        assertTrue(userRepository.findBySsn("999-99-9999").isEmpty());
+
+        userChunkWriter.write(List.of(john("999-99-9999")), userChunkWriter.beginSyncRun());
+
+        assertTrue(userRepository.findBySsn("123-45-6789").isEmpty());
+        assertEquals(1L, userRepository.findBySsn("999-99-9999").orElseThrow().getId());
+        assertEquals("999-99-9999", userRepository.findById(1L).orElseThrow().getSsn());
+    }
+
+    @Test
+    void findById_IsEvictedWhenUserIsDeleted() {
+        long firstRun = userChunkWriter.beginSyncRun();
+        userChunkWriter.write(List.of(john("123-45-6789")), firstRun);
+        assertTrue(userRepository.findById(1L).isPresent());
+
+        userChunkWriter.deleteMissing(userChunkWriter.beginSyncRun());
+
+        assertTrue(userRepository.findById(1L).isEmpty());
+    }
+
+    private static User john(String ssn) {
+        User john = new User(1L, "John", "Doe", null, 30, "male", "john.doe@example.com", "1234567890", "john", "password", null, null, null, 180.0, 75.0, null, null, null, null, null, null, null, null, null, null, "user", null);
+        john.setSsn(ssn);
+        return john;
+    }
+}
@@ -0,0 +1,106 @@
+package com.backend.app.service;
+
+import com.backend.app.dto.UserChange;
+import com.backend.app.event.UsersChangedEvent;
+import com.backend.app.exception.FeatureUnavailableException;
+import com.backend.app.support.TestUsers;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserChangeFeedTest {
+
+    private SimpleMeterRegistry registry;
+    private UserChangeFeed userChangeFeed;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        userChangeFeed = new UserChangeFeed(registry, 5);
+        ReflectionTestUtils.setField(userChangeFeed, "enabled", true);
+        ReflectionTestUtils.setField(userChangeFeed, "heartbeat", Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userChangeFeed.shutdown();
+    }
+
+    @Test
+    void read_ReturnsChangesAfterSequenceInOrder() throws InterruptedException {
+        userChangeFeed.onUsersChanged(new UsersChangedEvent(List.of(TestUsers.user(1), TestUsers.user(2)),
+                List.of(TestUsers.user(3)), List.of(4L)));
+
+        List<UserChange> changes = userChangeFeed.read(0, 10, Duration.ZERO);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), changes.stream().map(UserChange::getSequence).toList());
+        assertEquals(List.of(UserChangeFeed.INSERT, UserChangeFeed.INSERT, UserChangeFeed.UPDATE, UserChangeFeed.DELETE),
+                changes.stream().map(UserChange::getType).toList());
+        assertEquals(List.of(1L, 2L, 3L, 4L), changes.stream().map(UserChange::getId).toList());
+        assertNull(changes.get(3).getUser());
+        assertEquals(List.of(3L), userChangeFeed.read(2, 1, Duration.ZERO).stream().map(UserChange::getSequence).toList());
+        assertTrue(userChangeFeed.read(4, 10, Duration.ZERO).isEmpty());
+    }
+
+    @Test
+    void read_ReturnsNullOnceChangesAreOverwrittenOrSequenceIsAhead() throws InterruptedException {
+        userChangeFeed.onUsersChanged(UsersChangedEvent.deleted(LongStream.rangeClosed(1, 7).boxed().toList()));
+
+        assertNull(userChangeFeed.read(1, 10, Duration.ZERO));
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L),
+                userChangeFeed.read(2, 10, Duration.ZERO).stream().map(UserChange::getSequence).toList());
+        assertNull(userChangeFeed.read(8, 10, Duration.ZERO));
+    }
+
+    @Test
+    void read_WaitsForTheNextChunk() throws Exception {
+        CompletableFuture<List<UserChange>> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return userChangeFeed.read(0, 10, Duration.ofSeconds(10));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertFalse(waiting.isDone());
+
+        userChangeFeed.onUsersChanged(UsersChangedEvent.deleted(List.of(9L)));
+
+        assertEquals(9L, waiting.get(5, TimeUnit.SECONDS).get(0).getId());
+    }
+
+    @Test
+    void subscribe_RejectedWhenDisabledOrFull() {
+        ReflectionTestUtils.setField(userChangeFeed, "maxSubscribers", 1);
+
+        assertNotNull(userChangeFeed.subscribe(null));
+        assertThrows(FeatureUnavailableException.class, () -> userChangeFeed.subscribe(null));
+        assertEquals(1.0, registry.get("users.changes.subscribers").gauge().value());
+
+        ReflectionTestUtils.setField(userChangeFeed, "enabled", false);
+        assertThrows(FeatureUnavailableException.class, () -> userChangeFeed.subscribe(null));
+    }
+
+    @Test
+    void subscribe_ResetsSubscriberBehindTheBuffer() throws InterruptedException {
+        userChangeFeed.onUsersChanged(UsersChangedEvent.deleted(LongStream.rangeClosed(1, 7).boxed().toList()));
+
+        userChangeFeed.subscribe(0L);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("users.changes.resets").counter().count() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1.0, registry.get("users.changes.resets").counter().count());
+    }
+}
@@ -0,0 +1,79 @@
+package com.backend.app.service;
+
+import com.backend.app.dao.UserBatchWriter;
+import com.backend.app.dao.UserFingerprintStore;
+import com.backend.app.dao.UserRepository;
+import com.backend.app.dto.LoadResult;
+import com.backend.app.entity.Bank;
+import com.backend.app.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({UserChunkWriter.class, UserBatchWriter.class, UserFingerprintStore.class})
+class UserChunkWriterTest {
+
+    @Autowired
+    private UserChunkWriter userChunkWriter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void write_ClassifiesInsertedUpdatedAndUnchangedUsers() {
+        long firstRun = userChunkWriter.beginSyncRun();
+        LoadResult first = userChunkWriter.write(List.of(john("USD"), jane()), firstRun);
+
+        assertEquals(2, first.getInserted());
+        assertEquals(0, first.getUpdated());
+
+        long secondRun = userChunkWriter.beginSyncRun();
+        LoadResult second = userChunkWriter.write(List.of(john("EUR"), jane()), secondRun);
+
+        assertTrue(secondRun > firstRun);
+        assertEquals(0, second.getInserted());
+        assertEquals(1, second.getUpdated());
+        assertEquals(1, second.getUnchanged());
+        assertEquals("EUR", userRepository.findById(1L).orElseThrow().getBank().getCurrency());
+    }
+
+    @Test
+    void deleteMissing_RemovesUsersNotSeenByRun() {
+        userChunkWriter.write(List.of(john("USD"), jane()), userChunkWriter.beginSyncRun());
+
+        long run = userChunkWriter.beginSyncRun();
+        userChunkWriter.write(List.of(jane()), run);
+        long deleted = userChunkWriter.deleteMissing(run);
+
+        assertEquals(1, deleted);
+        assertFalse(userRepository.existsById(1L));
+        assertTrue(userRepository.existsById(2L));
+    }
+
+    @Test
+    void fingerprint_CoversEmbeddedObjects() {
+        assertEquals(userChunkWriter.fingerprint(john("USD")), userChunkWriter.fingerprint(john("USD")));
+        assertNotEquals(userChunkWriter.fingerprint(john("USD")), userChunkWriter.fingerprint(john("EUR")));
+    }
+
+    private static User john(String currency) {
+        User user = new User(1L, "John", "Doe", null, 30, "male", "john.doe@example.com", "1234567890", "john", "password", null, null, null, 180.0, 75.0, null, null, null, null, null, null, null, null, null, null, "user", null);
+        Bank bank = new Bank();
+        bank.setCurrency(currency);
+        user.setBank(bank);
+        return user;
+    }
+
+    private static User jane() {
+        return new User(2L, "Jane", "Smith", null, 25, "female", "jane.smith@example.com", "0987654321", "jane", "password", null, null, null, 170.0, 65.0, null, null, null, null, null, null, null, null, null, null, "admin", null);
+    }
+}
@@ -0,0 +1,146 @@
+package com.backend.app.service;
+
+import com.backend.app.dto.LoadResult;
+import com.backend.app.dto.UserFilter;
+import com.backend.app.dto.UserPage;
+import com.backend.app.entity.User;
+import com.backend.app.event.UsersLoadedEvent;
+import com.backend.app.exception.FeatureUnavailableException;
+import com.backend.app.exception.InvalidPageRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Import(UserColumnStore.class)
+@TestPropertySource(properties = "users.columns.enabled=true")
+class UserColumnStoreTest {
+    private static final String[] ROLES = {"admin", "user", "moderator", null};
+    private static final String[] EYE_COLORS = {"Brown", "Blue", "Green", "Gray", "Amber"};
+
+    @Autowired
+    private UserColumnStore userColumnStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Built empty when the test context started
+        ReflectionTestUtils.setField(userColumnStore, "snapshot", null);
+    }
+
+    @Test
+    void filter_MatchesQueryAcrossPages() {
+        for (long id = 1; id <= 300; id++) {
+            insert(id, ROLES[(int) (id % 4)], id % 3 == 0 ? "female" : "male", EYE_COLORS[(int) (id % 5)],
+                    id % 11 == 0 ? null : (int) (id % 70), id % 13 == 0 ? null : 150.0 + id % 50, 50.0 + id % 40);
+        }
+        userColumnStore.rebuild();
+
+        UserFilter filter = new UserFilter();
+        filter.setRole(List.of("admin", "moderator"));
+        filter.setEyeColor(List.of("Brown", "Green", "Violet"));
+        filter.setMinAge(20);
+        filter.setMaxAge(50);
+        filter.setMinHeight(160.0);
+        List<Long> expected = jdbcTemplate.queryForList("SELECT id FROM users WHERE role IN ('admin', 'moderator') "
+                + "AND eye_color IN ('Brown', 'Green') AND age BETWEEN 20 AND 50 AND height >= 160 ORDER BY id",
+                Long.class);
+
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            UserPage page = userColumnStore.filter(filter, 4, cursor);
+            assertTrue(page.getItems().size() <= 4);
+            ids.addAll(ids(page));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    void filter_WithoutConditionsPagesAllUsersAndEmptyRangeMatchesNone() {
+        for (long id = 1; id <= 5; id++) {
+            insert(id, "user", "male", "Blue", 30, null, null);
+        }
+        userColumnStore.rebuild();
+
+        UserPage first = userColumnStore.filter(new UserFilter(), 3, null);
+        assertEquals(List.of(1L, 2L, 3L), ids(first));
+        UserPage second = userColumnStore.filter(new UserFilter(), 3, first.getNextCursor());
+        assertEquals(List.of(4L, 5L), ids(second));
+        assertNull(second.getNextCursor());
+
+        UserFilter filter = new UserFilter();
+        filter.setMinAge(40);
+        filter.setMaxAge(20);
+        assertTrue(userColumnStore.filter(filter, 3, null).getItems().isEmpty());
+        filter = new UserFilter();
+        filter.setMaxWeight(100.0);
+        assertTrue(userColumnStore.filter(filter, 3, null).getItems().isEmpty());
+    }
+
+    @Test
+    void onUsersLoaded_RebuildsOnlyAfterChanges() {
+        UserFilter filter = new UserFilter();
+        filter.setGender(List.of("female"));
+
+        assertThrows(FeatureUnavailableException.class, () -> userColumnStore.filter(filter, 10, null));
+        userColumnStore.onUsersLoaded(new UsersLoadedEvent(new LoadResult()));
+        assertTrue(userColumnStore.filter(filter, 10, null).getItems().isEmpty());
+
+        insert(1, "admin", "female", "Green", 25, 165.0, 60.0);
+        userColumnStore.onUsersLoaded(new UsersLoadedEvent(new LoadResult()));
+        assertTrue(userColumnStore.filter(filter, 10, null).getItems().isEmpty());
+
+        LoadResult result = new LoadResult();
+        result.setInserted(1);
+        userColumnStore.onUsersLoaded(new UsersLoadedEvent(result));
+        assertEquals(1, userColumnStore.filter(filter, 10, null).getItems().size());
+    }
+
+    @Test
+    void onUsersLoaded_LogsFailedRebuild() {
+        JdbcTemplate failing = mock(JdbcTemplate.class);
+        when(failing.queryForObject(anyString(), eq(Long.class))).thenThrow(new DataAccessResourceFailureException("down"));
+        UserColumnStore store = new UserColumnStore(null, failing);
+        ReflectionTestUtils.setField(store, "enabled", true);
+
+        assertDoesNotThrow(() -> store.onUsersLoaded(new UsersLoadedEvent(new LoadResult())));
+        assertThrows(FeatureUnavailableException.class, () -> store.filter(new UserFilter(), 10, null));
+    }
+
+    @Test
+    void filter_RejectsInvalidLimitAndCursor() {
+        userColumnStore.rebuild();
+
+        assertThrows(InvalidPageRequestException.class, () -> userColumnStore.filter(new UserFilter(), 0, null));
+        assertThrows(InvalidPageRequestException.class, () -> userColumnStore.filter(new UserFilter(), 1001, null));
+        assertThrows(InvalidPageRequestException.class, () -> userColumnStore.filter(new UserFilter(), 10, "bogus"));
+    }
+
+    private static List<Long> ids(UserPage page) {
+        return page.getItems().stream().map(user -> ((User) user).getId()).toList();
+    }
+
+    private void insert(long id, String role, String gender, String eyeColor, Integer age, Double height,
+                        Double weight) {
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, role, gender, eye_color, age, height, weight) "
+                + "VALUES (?, 'John', 'Doe', ?, ?, ?, ?, ?, ?)", id, role, gender, eyeColor, age, height, weight);
+    }
+}
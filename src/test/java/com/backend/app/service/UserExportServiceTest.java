@@ -0,0 +1,97 @@
+package com.backend.app.service;
+
+import com.backend.app.dao.UserRepository;
+import com.backend.app.entity.Company;
+import com.backend.app.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(UserExportService.class)
+class UserExportServiceTest {
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userExportService, "flushRows", 1);
+        User jane = new User(2L, "Jane", "Smith", null, 25, "female", "jane.smith@example.com", "0987654321", "jane", "password", null, null, null, 170.0, 65.0, null, null, null, null, null, null, null, null, null, null, "admin", null);
+        User john = new User(1L, "John", "Doe", null, 30, "male", "john.doe@example.com", "1234567890", "john", "password", null, null, null, 180.0, 75.0, null, null, null, null, null, null, null, null, null, null, "user", null);
+        Company company = new Company();
+        company.setName("Acme, \"Inc\"");
+        john.setCompany(company);
+        userRepository.saveAll(List.of(jane, john));
+        userRepository.flush();
+    }
+
+    @Test
+    void export_WritesOneJsonUserPerLineInIdOrder() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = userExportService.export(ExportFormat.NDJSON, out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        String[] lines = body.split("\n");
+        assertEquals(2, written);
+        assertEquals(2, lines.length);
+        assertTrue(body.endsWith("}\n"));
+        for (String line : lines) {
+            assertTrue(line.startsWith("{"), line);
+        }
+        User first = objectMapper.readValue(lines[0], User.class);
+        assertEquals(1L, first.getId());
+        assertEquals("Acme, \"Inc\"", first.getCompany().getName());
+        assertEquals("Jane", objectMapper.readValue(lines[1], User.class).getFirstName());
+    }
+
+    @Test
+    void export_WritesQuotedCsvWithHeader() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = userExportService.export(ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(2, written);
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("id,first_name,last_name,maiden_name,age,"));
+        assertTrue(lines[1].startsWith("1,John,Doe,,30,male,"));
+        assertTrue(lines[1].contains(",\"Acme, \"\"Inc\"\"\","));
+        assertTrue(lines[2].startsWith("2,Jane,Smith,"));
+    }
+
+    @Test
+    void export_DetachesStreamedUsers() throws IOException {
+        testEntityManager.clear();
+
+        userExportService.export(ExportFormat.CSV, new ByteArrayOutputStream());
+
+        assertEquals(0, testEntityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+}
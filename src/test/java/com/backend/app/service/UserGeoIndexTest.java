@@ -0,0 +1,145 @@
+package com.backend.app.service;
+
+import com.backend.app.entity.Address;
+import com.backend.app.entity.Company;
+import com.backend.app.entity.Coordinates;
+import com.backend.app.entity.User;
+import com.backend.app.event.UsersChangedEvent;
+import com.backend.app.exception.FeatureUnavailableException;
+import com.backend.app.exception.InvalidGeoQueryException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(UserGeoIndex.class)
+@TestPropertySource(properties = {"users.geo.enabled=true", "users.geo.max-limit=10"})
+class UserGeoIndexTest {
+
+    @Autowired
+    private UserGeoIndex userGeoIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Built empty when the test context started
+        ReflectionTestUtils.setField(userGeoIndex, "ready", false);
+    }
+
+    @Test
+    void nearIds_ReturnsUsersWithinRadiusNearestFirst() {
+        insert(1, 40.7128, -74.0060);  // New York
+        insert(2, 40.7306, -73.9352);  // Brooklyn, about 6 km away
+        insert(3, 39.9526, -75.1652);  // Philadelphia, about 130 km away
+        insert(4, 51.5074, -0.1278);   // London
+        insert(5, null, null);
+        userGeoIndex.rebuild();
+
+        List<UserGeoIndex.Hit> hits = userGeoIndex.nearIds(40.7128, -74.0060, 150, 10);
+
+        assertEquals(List.of(1L, 2L, 3L), hits.stream().map(UserGeoIndex.Hit::id).toList());
+        assertEquals(0, hits.get(0).distanceKm(), 1e-9);
+        assertEquals(6.2, hits.get(1).distanceKm(), 0.2);
+        assertEquals(List.of(1L, 2L), userGeoIndex.nearIds(40.7128, -74.0060, 150, 2).stream()
+                .map(UserGeoIndex.Hit::id).toList());
+        assertEquals(List.of(1L), userGeoIndex.nearIds(40.7128, -74.0060, 1, 10).stream()
+                .map(UserGeoIndex.Hit::id).toList());
+    }
+
+    @Test
+    void nearIds_FindsUsersAcrossTheAntimeridianAndAroundPoles() {
+        insert(1, 0.0, 179.99);
+        insert(2, 0.0, -179.99);
+        insert(3, 89.9, 0.0);
+        insert(4, 89.9, 180.0);
+        userGeoIndex.rebuild();
+
+        assertEquals(List.of(1L, 2L), userGeoIndex.nearIds(0, 179.995, 10, 10).stream()
+                .map(UserGeoIndex.Hit::id).toList());
+        assertEquals(List.of(3L, 4L), userGeoIndex.nearIds(90, 0, 50, 10).stream()
+                .map(UserGeoIndex.Hit::id).toList());
+    }
+
+    @Test
+    void withinIds_CountsAllUsersInBoxAndReturnsFirstById() {
+        insert(3, 40.5, -74.5);
+        insert(1, 40.0, -75.0);   // On the box edge
+        insert(2, 41.0, -73.0);   // On the opposite edge
+        insert(4, 41.01, -74.0);  // Just north of the box
+        insert(5, 40.5, 179.5);
+        insert(6, 40.5, -179.5);
+        userGeoIndex.rebuild();
+
+        assertEquals(new UserGeoIndex.Area(3, List.of(1L, 2L, 3L)), userGeoIndex.withinIds(40, -75, 41, -73, 10));
+        assertEquals(new UserGeoIndex.Area(3, List.of(1L, 2L)), userGeoIndex.withinIds(40, -75, 41, -73, 2));
+        // minLng greater than maxLng crosses the antimeridian
+        assertEquals(new UserGeoIndex.Area(2, List.of(5L, 6L)), userGeoIndex.withinIds(40, 179, 41, -179, 10));
+        assertEquals(6, userGeoIndex.withinIds(-90, -180, 90, 180, 1).total());
+    }
+
+    @Test
+    void onUsersChanged_MovesAndRemovesUsers() {
+        insert(1, 40.7128, -74.0060);
+        userGeoIndex.rebuild();
+
+        userGeoIndex.onUsersChanged(new UsersChangedEvent(List.of(user(2, 40.7306, -73.9352)),
+                List.of(user(1, 51.5074, -0.1278)), List.of()));
+        assertEquals(List.of(2L), userGeoIndex.nearIds(40.7128, -74.0060, 50, 10).stream()
+                .map(UserGeoIndex.Hit::id).toList());
+        assertEquals(List.of(1L), userGeoIndex.nearIds(51.5, -0.12, 50, 10).stream()
+                .map(UserGeoIndex.Hit::id).toList());
+
+        userGeoIndex.onUsersChanged(UsersChangedEvent.deleted(List.of(2L)));
+        assertEquals(0, userGeoIndex.withinIds(40, -75, 41, -73, 10).total());
+    }
+
+    @Test
+    void queries_RejectBadRequestsAndQueriesBeforeBuild() {
+        assertThrows(FeatureUnavailableException.class, () -> userGeoIndex.nearIds(0, 0, 10, 10));
+
+        userGeoIndex.rebuild();
+        assertThrows(InvalidGeoQueryException.class, () -> userGeoIndex.nearIds(91, 0, 10, 10));
+        assertThrows(InvalidGeoQueryException.class, () -> userGeoIndex.nearIds(0, Double.NaN, 10, 10));
+        assertThrows(InvalidGeoQueryException.class, () -> userGeoIndex.nearIds(0, 0, 0, 10));
+        assertThrows(InvalidGeoQueryException.class, () -> userGeoIndex.nearIds(0, 0, 2001, 10));
+        assertThrows(InvalidGeoQueryException.class, () -> userGeoIndex.nearIds(0, 0, 10, 11));
+        assertThrows(InvalidGeoQueryException.class, () -> userGeoIndex.withinIds(41, -75, 40, -73, 10));
+    }
+
+    @Test
+    void distanceKm_MatchesKnownDistances() {
+        // New York to London
+        assertEquals(5570, UserGeoIndex.distanceKm(40.7128, -74.0060, 51.5074, -0.1278), 5);
+        assertEquals(20015, UserGeoIndex.distanceKm(90, 0, -90, 0), 1);
+    }
+
+    private void insert(long id, Double lat, Double lng) {
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, lat, lng) VALUES (?, 'John', 'Doe', ?, ?)",
+                id, lat, lng);
+    }
+
+    private static User user(long id, double lat, double lng) {
+        Coordinates coordinates = new Coordinates();
+        coordinates.setLat(lat);
+        coordinates.setLng(lng);
+        Address address = new Address();
+        address.setCoordinates(coordinates);
+        Company company = new Company();
+        company.setAddress(address);
+        User user = new User();
+        user.setId(id);
+        user.setCompany(company);
+        return user;
+    }
+}
@@ -0,0 +1,89 @@
+package com.backend.app.service;
+
+import com.backend.app.dao.UserRepository;
+import com.backend.app.dto.LoadResult;
+import com.backend.app.entity.User;
+import com.backend.app.event.UsersLoadedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(UserIndex.class)
+class UserIndexTest {
+
+    @Autowired
+    private UserIndex userIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userIndex, "enabled", true);
+        userRepository.saveAll(List.of(user(1L, 30, "admin"), user(2L, null, "user"), user(3L, 25, "admin"),
+                user(4L, 30, "user"), user(5L, 18, "moderator")));
+        userRepository.flush();
+    }
+
+    @Test
+    void findByRole_IsEmptyUntilFirstBuild() {
+        assertFalse(userIndex.isReady());
+        assertTrue(userIndex.findByRole("admin").isEmpty());
+    }
+
+    @Test
+    void findByRole_ReturnsPostingsInIdOrder() {
+        userIndex.onUsersLoaded(new UsersLoadedEvent(new LoadResult()));
+
+        assertEquals(List.of(1L, 3L), ids(userIndex.findByRole("admin").orElseThrow()));
+        assertEquals(List.of(5L), ids(userIndex.findByRole("moderator").orElseThrow()));
+        assertTrue(userIndex.findByRole("manager").orElseThrow().isEmpty());
+    }
+
+    @Test
+    void findAllSortedByAge_MatchesDatabaseOrder() {
+        userIndex.onUsersLoaded(new UsersLoadedEvent(new LoadResult()));
+
+        assertEquals(List.of(2L, 5L, 3L, 1L, 4L), ids(userIndex.findAllSortedByAge(true).orElseThrow()));
+        assertEquals(List.of(4L, 1L, 3L, 5L, 2L), ids(userIndex.findAllSortedByAge(false).orElseThrow()));
+    }
+
+    @Test
+    void onUsersLoaded_RebuildsOnlyWhenUsersChanged() {
+        userIndex.onUsersLoaded(new UsersLoadedEvent(new LoadResult()));
+        userRepository.save(user(6L, 50, "admin"));
+        userRepository.flush();
+
+        LoadResult unchanged = new LoadResult();
+        unchanged.setUnchanged(5);
+        userIndex.onUsersLoaded(new UsersLoadedEvent(unchanged));
+        assertEquals(List.of(1L, 3L), ids(userIndex.findByRole("admin").orElseThrow()));
+
+        LoadResult changed = new LoadResult();
+        changed.setInserted(1);
+        userIndex.onUsersLoaded(new UsersLoadedEvent(changed));
+        assertEquals(List.of(1L, 3L, 6L), ids(userIndex.findByRole("admin").orElseThrow()));
+    }
+
+    private static User user(Long id, Integer age, String role) {
+        User user = new User();
+        user.setId(id);
+        user.setAge(age);
+        user.setRole(role);
+        user.setFirstName("User" + id);
+        user.setLastName("Doe");
+        return user;
+    }
+
+    private static List<Long> ids(List<User> users) {
+        return users.stream().map(User::getId).toList();
+    }
+}
@@ -0,0 +1,109 @@
+package com.backend.app.service;
+
+import com.backend.app.dto.LoadResult;
+import com.backend.app.event.UsersLoadedEvent;
+import com.backend.app.exception.ExternalApiException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserLoadCoordinatorTest {
+
+    private UserService userService;
+    private ApplicationEventPublisher eventPublisher;
+    private UserLoadCoordinator userLoadCoordinator;
+
+    @BeforeEach
+    void setUp() {
+        userService = mock(UserService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        userLoadCoordinator = new UserLoadCoordinator(userService, eventPublisher);
+    }
+
+    @Test
+    void load_ConcurrentCallersShareOneLoad() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        LoadResult result = new LoadResult();
+        when(userService.loadUsers()).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return result;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<LoadResult>> calls = new ArrayList<>();
+            calls.add(executor.submit(userLoadCoordinator::load));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            calls.add(executor.submit(userLoadCoordinator::load));
+            calls.add(executor.submit(userLoadCoordinator::load));
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<LoadResult> call : calls) {
+                assertSame(result, call.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(userService, times(1)).loadUsers();
+    }
+
+    @Test
+    void load_ReusesCompletedLoadWithinMinInterval() throws ExternalApiException {
+        ReflectionTestUtils.setField(userLoadCoordinator, "minInterval", Duration.ofHours(1));
+        LoadResult result = new LoadResult();
+        when(userService.loadUsers()).thenReturn(result);
+
+        assertSame(result, userLoadCoordinator.load());
+        assertSame(result, userLoadCoordinator.load());
+        verify(userService, times(1)).loadUsers();
+        verify(eventPublisher, times(1)).publishEvent(new UsersLoadedEvent(result));
+    }
+
+    @Test
+    void load_RunsAgainWithoutMinInterval() throws ExternalApiException {
+        when(userService.loadUsers()).thenReturn(new LoadResult());
+
+        userLoadCoordinator.load();
+        userLoadCoordinator.load();
+
+        verify(userService, times(2)).loadUsers();
+    }
+
+    @Test
+    void load_DoesNotReuseFailedLoad() throws ExternalApiException {
+        ReflectionTestUtils.setField(userLoadCoordinator, "minInterval", Duration.ofHours(1));
+        when(userService.loadUsers()).thenReturn(LoadResult.failed("upstream down"), new LoadResult());
+
+        assertEquals(LoadResult.FAILED, userLoadCoordinator.load().getStatus());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        assertEquals(LoadResult.COMPLETED, userLoadCoordinator.load().getStatus());
+        verify(userService, times(2)).loadUsers();
+        verify(eventPublisher, times(1)).publishEvent(any(UsersLoadedEvent.class));
+    }
+
+    @Test
+    void load_PropagatesFailureAndReleasesSlot() throws ExternalApiException {
+        ExternalApiException failure = new ExternalApiException("No valid users to save.", null);
+        when(userService.loadUsers()).thenThrow(failure).thenReturn(new LoadResult());
+
+        assertSame(failure, assertThrows(ExternalApiException.class, userLoadCoordinator::load));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        assertEquals(LoadResult.COMPLETED, userLoadCoordinator.load().getStatus());
+    }
+}
@@ -0,0 +1,107 @@
+package com.backend.app.service;
+
+import com.backend.app.dao.UserRepository;
+import com.backend.app.dto.UserLookupResult;
+import com.backend.app.entity.User;
+import com.backend.app.exception.InvalidLookupRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@Import(UserLookupService.class)
+@TestPropertySource(properties = "users.lookup.max-keys=5")
+class UserLookupServiceTest {
+
+    @Autowired
+    private UserLookupService userLookupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users");
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void lookup_SplitsIdsAndSsnsAndReportsMisses() {
+        insert(1, "111-11-1111");
+        insert(2, "222-22-2222");
+
+        UserLookupResult result = userLookupService.lookup(List.of("2", "111-11-1111", "9", "999-99-9999", "x"));
+
+        assertEquals(List.of(2L, 1L), result.getUsers().stream().map(User::getId).toList());
+        assertEquals(List.of("9", "999-99-9999", "x"), result.getNotFound());
+    }
+
+    @Test
+    void lookup_ReturnsUserMatchedByIdAndSsnOnce() {
+        insert(1, "111-11-1111");
+
+        UserLookupResult result = userLookupService.lookup(List.of("1", "111-11-1111", "1", "0001"));
+
+        assertEquals(1, result.getUsers().size());
+        assertTrue(result.getNotFound().isEmpty());
+    }
+
+    @Test
+    void lookup_SharesCachedHitsAndMissesWithSingleLookups() {
+        insert(1, "111-11-1111");
+        assertTrue(userRepository.findById(2L).isEmpty());
+
+        // Written behind the cache's back, so the cached miss from the single lookup is still served
+        insert(2, "222-22-2222");
+        UserLookupResult result = userLookupService.lookup(List.of("1", "2", "222-22-2222"));
+
+        assertEquals(List.of("2"), result.getNotFound());
+        // The bulk lookup cached user 1 and the SSN, so single lookups are served from the cache too
+        jdbcTemplate.update("DELETE FROM users");
+        assertEquals(1L, userRepository.findById(1L).orElseThrow().getId());
+        assertEquals(2L, userRepository.findBySsn("222-22-2222").orElseThrow().getId());
+    }
+
+    @Test
+    void lookup_RejectsEmptyAndOversizedRequests() {
+        assertThrows(InvalidLookupRequestException.class, () -> userLookupService.lookup(List.of()));
+        assertThrows(InvalidLookupRequestException.class,
+                () -> userLookupService.lookup(Collections.nCopies(6, "1")));
+    }
+
+    @Test
+    void parseId_AcceptsOnlyPlainNumbersWithinLongRange() {
+        assertEquals(42L, UserLookupService.parseId("42"));
+        assertEquals(Long.MAX_VALUE, UserLookupService.parseId("9223372036854775807"));
+        assertNull(UserLookupService.parseId("9223372036854775808"));
+        assertNull(UserLookupService.parseId("123-45-6789"));
+        assertNull(UserLookupService.parseId("-1"));
+        assertNull(UserLookupService.parseId(""));
+    }
+
+    private void insert(long id, String ssn) {
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, ssn) VALUES (?, 'John', 'Doe', ?)", id, ssn);
+    }
+}
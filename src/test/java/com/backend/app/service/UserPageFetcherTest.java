@@ -0,0 +1,149 @@
+package com.backend.app.service;
+
+import com.backend.app.dto.UsersResponse;
+import com.backend.app.exception.ExternalApiException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class UserPageFetcherTest {
+
+    private MockRestServiceServer server;
+    private UserPageFetcher userPageFetcher;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        ObjectMapper objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        userPageFetcher = new UserPageFetcher(restTemplate, objectMapper, BulkheadRegistry.ofDefaults());
+        ReflectionTestUtils.setField(userPageFetcher, "fetchConcurrency", 4);
+    }
+
+    @Test
+    void fetchPage_StreamsUsersAndPaginationFields() {
+        String body = """
+                {"users":[
+                  {"id":1,"firstName":"John","lastName":"Doe","age":30,"address":{"city":"Phoenix"},"role":"user"},
+                  {"id":2,"firstName":"Jane","lastName":"Smith","age":25,"role":"admin"}
+                ],"total":208,"skip":30,"limit":2}
+                """;
+        server.expect(requestTo("https://mocked-url.com/users?limit=2&skip=30"))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_JSON));
+
+        UsersResponse page = userPageFetcher.fetchPage("https://mocked-url.com/users", 30, 2);
+
+        assertEquals(2, page.getUsers().size());
+        assertEquals("Jane", page.getUsers().get(1).getFirstName());
+        assertEquals(208, page.getTotal());
+        assertEquals(30, page.getSkip());
+        assertEquals(2, page.getLimit());
+        server.verify();
+    }
+
+    @Test
+    void fetchPage_ReturnsEmptyPageWhenUsersMissing() {
+        server.expect(requestTo("https://mocked-url.com/users?limit=10&skip=0"))
+                .andRespond(withSuccess("{\"total\":0}", MediaType.APPLICATION_JSON));
+
+        UsersResponse page = userPageFetcher.fetchPage("https://mocked-url.com/users", 0, 10);
+
+        assertNull(page.getUsers());
+        assertEquals(0, page.getTotal());
+    }
+
+    @Test
+    void fetchAll_FetchesRemainingPagesConcurrently() throws ExternalApiException {
+        for (int skip = 0; skip < 10; skip += 2) {
+            server.expect(requestTo("https://mocked-url.com/users?limit=2&skip=" + skip))
+                    .andRespond(withSuccess(page(skip, 2, 9), MediaType.APPLICATION_JSON));
+        }
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        List<String> threads = new ArrayList<>();
+
+        long handled = userPageFetcher.fetchAll("https://mocked-url.com/users", 2, page -> {
+            threads.add(Thread.currentThread().getName());
+            page.getUsers().forEach(user -> ids.add(user.getId()));
+        });
+
+        assertEquals(9, handled);
+        assertEquals(9, ids.size());
+        assertTrue(threads.stream().allMatch(name -> name.equals(Thread.currentThread().getName())));
+        server.verify();
+    }
+
+    @Test
+    void fetchAll_FetchesOnVirtualThreadsWhenEnabled() throws ExternalApiException {
+        ReflectionTestUtils.setField(userPageFetcher, "virtualThreads", true);
+        Set<Boolean> virtual = ConcurrentHashMap.newKeySet();
+        for (int skip = 2; skip < 6; skip += 2) {
+            String body = page(skip, 2, 6);
+            server.expect(requestTo("https://mocked-url.com/users?limit=2&skip=" + skip)).andRespond(request -> {
+                virtual.add(Thread.currentThread().isVirtual());
+                return withSuccess(body, MediaType.APPLICATION_JSON).createResponse(request);
+            });
+        }
+        server.expect(requestTo("https://mocked-url.com/users?limit=2&skip=0"))
+                .andRespond(withSuccess(page(0, 2, 6), MediaType.APPLICATION_JSON));
+
+        long handled = userPageFetcher.fetchAll("https://mocked-url.com/users", 2, page -> { });
+
+        assertEquals(6, handled);
+        assertEquals(Set.of(true), virtual);
+        server.verify();
+    }
+
+    @Test
+    void fetchAll_FetchesSequentiallyWhenConcurrencyIsOne() throws ExternalApiException {
+        ReflectionTestUtils.setField(userPageFetcher, "fetchConcurrency", 1);
+        server.expect(requestTo("https://mocked-url.com/users?limit=2&skip=0"))
+                .andRespond(withSuccess(page(0, 2, 3), MediaType.APPLICATION_JSON));
+        server.expect(requestTo("https://mocked-url.com/users?limit=2&skip=2"))
+                .andRespond(withSuccess(page(2, 2, 3), MediaType.APPLICATION_JSON));
+        List<Long> ids = new ArrayList<>();
+
+        long handled = userPageFetcher.fetchAll("https://mocked-url.com/users", 2,
+                page -> page.getUsers().forEach(user -> ids.add(user.getId())));
+
+        assertEquals(3, handled);
+        assertEquals(List.of(1L, 2L, 3L), ids);
+        server.verify();
+    }
+
+    @Test
+    void fetchAll_FailsWhenAPageFails() {
+        server.expect(requestTo("https://mocked-url.com/users?limit=2&skip=0"))
+                .andRespond(withSuccess(page(0, 2, 4), MediaType.APPLICATION_JSON));
+        server.expect(requestTo("https://mocked-url.com/users?limit=2&skip=2"))
+                .andRespond(withServerError());
+
+        assertThrows(ExternalApiException.class, () -> userPageFetcher.fetchAll("https://mocked-url.com/users", 2, page -> { }));
+    }
+
+    private static String page(int skip, int limit, int total) {
+        StringBuilder users = new StringBuilder();
+        for (int id = skip + 1; id <= Math.min(skip + limit, total); id++) {
+            if (users.length() > 0) {
+                users.append(',');
+            }
+            users.append("{\"id\":").append(id).append(",\"firstName\":\"User").append(id).append("\"}");
+        }
+        return "{\"users\":[" + users + "],\"total\":" + total + ",\"skip\":" + skip + ",\"limit\":" + limit + "}";
+    }
+}
@@ -0,0 +1,134 @@
+package com.backend.app.service;
+
+import com.backend.app.entity.User;
+import com.backend.app.event.UsersChangedEvent;
+import com.backend.app.exception.FeatureUnavailableException;
+import com.backend.app.exception.InvalidSearchRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(UserSearchIndex.class)
+@TestPropertySource(properties = "users.search.enabled=true")
+class UserSearchIndexTest {
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(userSearchIndex, "ready", false);
+    }
+
+    @Test
+    void search_RanksExactWordsBeforeCompletionsAndTypos() {
+        insert(1, "Johnathan", "Smith", "jsmith", "jsmith@example.com");
+        insert(2, "John", "Doe", "johnd", "john.doe@example.com");
+        insert(3, "Joan", "Baker", "jbaker", "jbaker@example.com");
+        insert(4, "Johnny", "Cash", "jcash", "jcash@example.com");
+        userSearchIndex.rebuild();
+
+        // Exact, then the shorter completions first, then the typo "joan"
+        assertEquals(List.of(2L, 4L, 1L, 3L), userSearchIndex.searchIds("john", 10));
+        assertEquals(List.of(2L, 4L), userSearchIndex.searchIds("john", 2));
+    }
+
+    @Test
+    void search_ToleratesOneTypo() {
+        insert(1, "John", "Doe", "johnd", "john.doe@example.com");
+        insert(2, "Emily", "Johnson", "emilyj", "emily.johnson@example.com");
+        userSearchIndex.rebuild();
+
+        assertEquals(List.of(1L, 2L), userSearchIndex.searchIds("jhon", 10));
+        assertEquals(List.of(2L), userSearchIndex.searchIds("emliy", 10));
+        // Too short to be fuzzy
+        assertEquals(List.of(), userSearchIndex.searchIds("jhn", 10));
+    }
+
+    @Test
+    void search_MatchesEveryWordAcrossFieldsWithoutAccents() {
+        insert(1, "José", "Doe", "jdoe", "jose.doe@example.com");
+        insert(2, "Jose", "Smith", "jsmith", "jose.smith@mail.org");
+        insert(3, "Anna", "Doe", "annad", "anna.doe@example.com");
+        userSearchIndex.rebuild();
+
+        assertEquals(List.of(1L), userSearchIndex.searchIds("JOSE do", 10));
+        assertEquals(List.of(2L), userSearchIndex.searchIds("jose.smith@mail", 10));
+        assertEquals(List.of(1L, 3L), userSearchIndex.searchIds("doe example", 10));
+    }
+
+    @Test
+    void search_ChecksOtherWordsBeyondTheExpansionCap() {
+        ReflectionTestUtils.setField(userSearchIndex, "maxExpansions", 3);
+        try {
+            for (int id = 1; id <= 5; id++) {
+                insert(id, "First" + id, "Last" + id, "user" + id, "u" + id + "@example.com");
+            }
+            userSearchIndex.rebuild();
+
+            // "last" expands to last1..last3 only, yet user 5 is found through its first name
+            assertEquals(List.of(5L), userSearchIndex.searchIds("frist5 last", 10));
+        } finally {
+            ReflectionTestUtils.setField(userSearchIndex, "maxExpansions", 200);
+        }
+    }
+
+    @Test
+    void onUsersChanged_UpdatesIndexIncrementally() {
+        insert(1, "John", "Doe", "johnd", "john.doe@example.com");
+        userSearchIndex.rebuild();
+
+        userSearchIndex.onUsersChanged(new UsersChangedEvent(List.of(user(2, "Jane", "Doe")),
+                List.of(user(1, "Jonas", "Doe")), List.of()));
+        assertEquals(List.of(1L, 2L), userSearchIndex.searchIds("doe", 10));
+        assertEquals(List.of(1L), userSearchIndex.searchIds("jonas", 10));
+        assertEquals(List.of(), userSearchIndex.searchIds("johnd", 10));
+
+        userSearchIndex.onUsersChanged(UsersChangedEvent.deleted(List.of(1L)));
+        assertEquals(List.of(2L), userSearchIndex.searchIds("doe", 10));
+    }
+
+    @Test
+    void search_RejectsBadRequestsAndSearchesBeforeBuild() {
+        assertThrows(FeatureUnavailableException.class, () -> userSearchIndex.searchIds("john", 10));
+
+        userSearchIndex.rebuild();
+        assertThrows(InvalidSearchRequestException.class, () -> userSearchIndex.searchIds("john", 0));
+        assertThrows(InvalidSearchRequestException.class, () -> userSearchIndex.searchIds("john", 101));
+        assertThrows(InvalidSearchRequestException.class, () -> userSearchIndex.searchIds(" @. ", 10));
+    }
+
+    @Test
+    void distance_CountsAdjacentSwapAsOneEdit() {
+        assertEquals(1, UserSearchIndex.distance("jhon", "john", 4));
+        assertEquals(1, UserSearchIndex.distance("jon", "john", 4));
+        assertEquals(2, UserSearchIndex.distance("jnoh", "john", 4));
+        assertEquals(0, UserSearchIndex.distance("john", "johnson", 4));
+    }
+
+    private void insert(long id, String firstName, String lastName, String username, String email) {
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, username, email) VALUES (?, ?, ?, ?, ?)",
+                id, firstName, lastName, username, email);
+    }
+
+    private static User user(long id, String firstName, String lastName) {
+        User user = new User();
+        user.setId(id);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        return user;
+    }
+}
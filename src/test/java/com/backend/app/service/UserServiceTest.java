@@ -1,21 +1,30 @@
 package com.backend.app.service;
 
 import com.backend.app.dao.UserRepository;
+import com.backend.app.dto.LoadResult;
+import com.backend.app.dto.PageCursor;
+import com.backend.app.dto.UserPage;
 import com.backend.app.dto.UsersResponse;
+import com.backend.app.dto.ValidationError;
 import com.backend.app.entity.User;
 import com.backend.app.exception.ExternalApiException;
+import com.backend.app.exception.InvalidPageRequestException;
 import com.backend.app.exception.InvalidSortingOrderException;
 import com.backend.app.exception.UserNotFoundException;
+import com.backend.app.metrics.IngestionMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.util.ReflectionTestUtils;
-import org.springframework.validation.Validator;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,15 +34,25 @@ class UserServiceTest {
 
     private UserRepository userRepository;
     private RestTemplate restTemplate;
-    private Validator validator;
+    private UserValidationStage userValidationStage;
+    private UserPageFetcher userPageFetcher;
+    private UserChunkWriter userChunkWriter;
+    private UserIndex userIndex;
+    private SimpleMeterRegistry meterRegistry;
     private UserService userService;
 
     @BeforeEach
     void setUp() {
         userRepository = mock(UserRepository.class);
         restTemplate = mock(RestTemplate.class);
-        validator = mock(Validator.class);
-        userService = new UserService(userRepository, restTemplate, validator);
+        userValidationStage = new UserValidationStage(Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(userValidationStage, "parallelThreshold", 512);
+        userPageFetcher = mock(UserPageFetcher.class);
+        userChunkWriter = mock(UserChunkWriter.class);
+        userIndex = mock(UserIndex.class);
+        meterRegistry = new SimpleMeterRegistry();
+        userService = new UserService(userRepository, restTemplate, userValidationStage, userPageFetcher, userChunkWriter,
+                userIndex, new IngestionMetrics(meterRegistry));
 
         ReflectionTestUtils.setField(userService, "externalApiUrl", "https://mocked-url.com");
 
@@ -50,11 +69,19 @@ class UserServiceTest {
         when(restTemplate.getForObject(eq("https://mocked-url.com"), eq(UsersResponse.class)))
                 .thenReturn(mockResponse);
 
-        when(userRepository.saveAll(Mockito.anyList())).thenReturn(mockResponse.getUsers());
+        LoadResult chunk = new LoadResult();
+        chunk.setInserted(1);
+        chunk.setUpdated(1);
+        when(userChunkWriter.beginSyncRun()).thenReturn(7L);
+        when(userChunkWriter.write(Mockito.anyList(), eq(7L))).thenReturn(chunk);
 
-        userService.loadUsers();
+        LoadResult result = userService.loadUsers();
         System.out.println("here3");
-        verify(userRepository, times(1)).saveAll(Mockito.anyList());
+        verify(userChunkWriter, times(1)).write(Mockito.anyList(), eq(7L));
+        verify(userChunkWriter, never()).deleteMissing(anyLong());
+        assertEquals(LoadResult.COMPLETED, result.getStatus());
+        assertEquals(1, result.getInserted());
+        assertEquals(1, result.getUpdated());
     }
 
     @Test
@@ -66,6 +93,125 @@ class UserServiceTest {
         assertTrue(exception.getMessage().contains("Failed to fetch and load users from the external API."));
     }
 
+    @Test
+    void loadUsers_PagedPersistsEachPageAsChunk() throws ExternalApiException {
+        ReflectionTestUtils.setField(userService, "paged", true);
+        ReflectionTestUtils.setField(userService, "pageSize", 2);
+
+        UsersResponse firstPage = new UsersResponse();
+        firstPage.setTotal(3);
+        firstPage.setUsers(Arrays.asList(
+                new User(1L, "John", "Doe", null, 30, "male", "john.doe@example.com", "1234567890", "john", "password", null, null, null, 180.0, 75.0, null, null, null, null, null, null, null, null, null, null, "user", null),
+                new User(2L, "Jane", "Smith", null, 25, "female", "jane.smith@example.com", "0987654321", "jane", "password", null, null, null, 170.0, 65.0, null, null, null, null, null, null, null, null, null, null, "admin", null)
+        ));
+        UsersResponse secondPage = new UsersResponse();
+        secondPage.setTotal(3);
+        secondPage.setUsers(List.of(
+                new User(3L, "Jim", "Beam", null, 40, "male", "jim.beam@example.com", "1112223333", "jim", "password", null, null, null, 175.0, 80.0, null, null, null, null, null, null, null, null, null, null, "user", null)
+        ));
+
+        when(userPageFetcher.fetchAll(eq("https://mocked-url.com"), eq(2), any())).thenAnswer(invocation -> {
+            UserPageFetcher.PageHandler handler = invocation.getArgument(2);
+            handler.handle(secondPage);
+            handler.handle(firstPage);
+            return 3L;
+        });
+        when(userChunkWriter.write(Mockito.anyList(), anyLong())).thenAnswer(invocation -> {
+            LoadResult chunk = new LoadResult();
+            chunk.setUnchanged(invocation.<List<User>>getArgument(0).size());
+            return chunk;
+        });
+
+        LoadResult result = userService.loadUsers();
+
+        verify(userChunkWriter, times(2)).write(Mockito.anyList(), anyLong());
+        assertEquals(3, result.getUnchanged());
+        assertEquals(0, result.getInserted());
+        verify(restTemplate, never()).getForObject(anyString(), eq(UsersResponse.class));
+        assertEquals(2, meterRegistry.get("ingestion.phase").tag("phase", "validate").timer().count());
+        assertEquals(2, meterRegistry.get("ingestion.phase").tag("phase", "persist").timer().count());
+        assertEquals(3.0, meterRegistry.get("ingestion.persist.rows").tag("result", "unchanged").counter().count());
+        assertEquals(0, meterRegistry.get("ingestion.loads.active").tag("mode", "paged").longTaskTimer().activeTasks());
+    }
+
+    @Test
+    void loadUsers_DeletesUsersMissingFromFeedWhenEnabled() throws ExternalApiException {
+        ReflectionTestUtils.setField(userService, "deleteMissing", true);
+        UsersResponse mockResponse = new UsersResponse();
+        mockResponse.setUsers(List.of(
+                new User(1L, "John", "Doe", null, 30, "male", "john.doe@example.com", "1234567890", "john", "password", null, null, null, 180.0, 75.0, null, null, null, null, null, null, null, null, null, null, "user", null)
+        ));
+        when(restTemplate.getForObject(eq("https://mocked-url.com"), eq(UsersResponse.class))).thenReturn(mockResponse);
+        LoadResult chunk = new LoadResult();
+        chunk.setUnchanged(1);
+        when(userChunkWriter.beginSyncRun()).thenReturn(3L);
+        when(userChunkWriter.write(Mockito.anyList(), eq(3L))).thenReturn(chunk);
+        when(userChunkWriter.deleteMissing(3L)).thenReturn(4L);
+
+        LoadResult result = userService.loadUsers();
+
+        assertEquals(4, result.getDeleted());
+    }
+
+    @Test
+    void loadUsers_FailsOnInvalidUserByDefault() {
+        UsersResponse mockResponse = new UsersResponse();
+        mockResponse.setUsers(List.of(
+                new User(1L, "John", "Doe", null, 30, "male", "john.doe@example.com", "1234567890", "john", "password", null, null, null, 180.0, 75.0, null, null, null, null, null, null, null, null, null, null, "user", null),
+                new User(2L, "J", "Smith", null, 250, "female", "jane.smith@example.com", "0987654321", "jane", "password", null, null, null, 170.0, 65.0, null, null, null, null, null, null, null, null, null, null, "admin", null)
+        ));
+        when(restTemplate.getForObject(eq("https://mocked-url.com"), eq(UsersResponse.class))).thenReturn(mockResponse);
+
+        ExternalApiException exception = assertThrows(ExternalApiException.class, userService::loadUsers);
+
+        assertTrue(exception.getCause().getMessage().contains("user 2 age Max"));
+        verify(userChunkWriter, never()).write(Mockito.anyList(), anyLong());
+    }
+
+    @Test
+    void loadUsers_SkipsInvalidUsersWhenPolicyIsSkip() throws ExternalApiException {
+        ReflectionTestUtils.setField(userService, "invalidUserPolicy", InvalidUserPolicy.SKIP);
+        UsersResponse mockResponse = new UsersResponse();
+        mockResponse.setUsers(List.of(
+                new User(1L, "John", "Doe", null, 30, "male", "john.doe@example.com", "1234567890", "john", "password", null, null, null, 180.0, 75.0, null, null, null, null, null, null, null, null, null, null, "user", null),
+                new User(2L, "J", "Smith", null, 250, "female", "jane.smith@example.com", "0987654321", "jane", "password", null, null, null, 170.0, 65.0, null, null, null, null, null, null, null, null, null, null, "admin", null)
+        ));
+        when(restTemplate.getForObject(eq("https://mocked-url.com"), eq(UsersResponse.class))).thenReturn(mockResponse);
+        LoadResult chunk = new LoadResult();
+        chunk.setInserted(1);
+        when(userChunkWriter.write(Mockito.anyList(), anyLong())).thenReturn(chunk);
+
+        LoadResult result = userService.loadUsers();
+
+        verify(userChunkWriter).write(argThat(users -> users.size() == 1 && users.get(0).getId() == 1L), anyLong());
+        assertEquals(1, result.getInvalid());
+        assertEquals(2, result.getValidationErrors().size());
+        assertTrue(result.getValidationErrors().contains(new ValidationError(2L, "firstName", "Size")));
+        assertEquals(1.0, meterRegistry.get("ingestion.validation.failures")
+                .tags("field", "firstName", "constraint", "Size").counter().count());
+        assertEquals(1.0, meterRegistry.get("ingestion.validation.failures")
+                .tags("field", "age", "constraint", "Max").counter().count());
+    }
+
+    @Test
+    void loadUsers_DoesNotDeleteWhenLoadFails() {
+        ReflectionTestUtils.setField(userService, "deleteMissing", true);
+        when(restTemplate.getForObject(Mockito.anyString(), eq(UsersResponse.class))).thenReturn(new UsersResponse());
+
+        assertThrows(ExternalApiException.class, userService::loadUsers);
+        verify(userChunkWriter, never()).deleteMissing(anyLong());
+    }
+
+    @Test
+    void loadUsers_PagedThrowsWhenFirstPageEmpty() throws ExternalApiException {
+        ReflectionTestUtils.setField(userService, "paged", true);
+        when(userPageFetcher.fetchAll(anyString(), anyInt(), any())).thenReturn(0L);
+
+        Exception exception = assertThrows(ExternalApiException.class, userService::loadUsers);
+        assertTrue(exception.getMessage().contains("Failed to fetch and load users from the external API."));
+        verify(userChunkWriter, never()).write(Mockito.anyList(), anyLong());
+    }
+
     @Test
     void getAllUsers_ReturnsUsers() {
         List<User> mockUsers = Arrays.asList(
@@ -94,6 +240,27 @@ class UserServiceTest {
         verify(userRepository, times(1)).findByRole(role);
     }
 
+    @Test
+    void getUsersByRole_UsesIndexWhenBuilt() {
+        User admin = new User();
+        admin.setId(2L);
+        admin.setRole("admin");
+        when(userIndex.findByRole("admin")).thenReturn(Optional.of(List.of(admin)));
+
+        assertEquals(List.of(admin), userService.getUsersByRole("admin"));
+        verify(userRepository, never()).findByRole(anyString());
+    }
+
+    @Test
+    void getUsersSortedByAge_UsesIndexWhenBuilt() {
+        User older = new User();
+        older.setAge(40);
+        when(userIndex.findAllSortedByAge(false)).thenReturn(Optional.of(List.of(older)));
+
+        assertEquals(List.of(older), userService.getUsersSortedByAge("desc"));
+        verify(userRepository, never()).findAllByOrderByAgeDesc();
+    }
+
     @Test
     void getUsersByRole_ThrowsUserNotFoundException() {
         String role = "nonexistent";
@@ -213,6 +380,65 @@ class UserServiceTest {
         verify(userRepository, never()).findById(anyLong());
     }
 
+    @Test
+    void getUsersPage_ReturnsCursorOnlyWhenMoreRowsExist() {
+        User first = new User();
+        first.setId(1L);
+        User second = new User();
+        second.setId(2L);
+        User third = new User();
+        third.setId(3L);
+        doReturn(List.of(first, second, third)).when(userRepository).findPageOrderById(null, 3, List.of());
+        doReturn(List.of(third)).when(userRepository).findPageOrderById(2L, 3, List.of());
+
+        UserPage page = userService.getUsersPage(2, null, null);
+
+        assertEquals(List.of(first, second), page.getItems());
+        assertNotNull(page.getNextCursor());
+
+        UserPage last = userService.getUsersPage(2, page.getNextCursor(), null);
+
+        assertEquals(List.of(third), last.getItems());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void getUsersSortedByAgePage_ProjectsFieldsAndDropsUnrequestedSortKeys() {
+        when(userRepository.projectableFields()).thenReturn(List.of("age", "firstName", "id"));
+        Map<String, Object> row = new LinkedHashMap<>(Map.of("id", 4L, "age", 30, "firstName", "John"));
+        Map<String, Object> extra = new LinkedHashMap<>(Map.of("id", 5L, "age", 25, "firstName", "Jane"));
+        doReturn(List.of(row, extra)).when(userRepository).findPageOrderByAge(false, null, null, 2, List.of("firstName"));
+
+        UserPage page = userService.getUsersSortedByAgePage("desc", 1, null, List.of("firstName"));
+
+        assertEquals(List.of(Map.of("firstName", "John")), page.getItems());
+        assertEquals(new PageCursor("age-desc", 30, 4L), PageCursor.decode(page.getNextCursor(), "age-desc"));
+    }
+
+    @Test
+    void getUsersSortedByAgePage_RejectsCursorOfOtherSort() {
+        String cursor = new PageCursor("age-asc", 30, 4L).encode();
+
+        assertThrows(InvalidPageRequestException.class, () -> userService.getUsersSortedByAgePage("desc", 10, cursor, null));
+        verify(userRepository, never()).findPageOrderByAge(anyBoolean(), any(), any(), anyInt(), anyList());
+    }
+
+    @Test
+    void getUsersPage_RejectsInvalidLimitAndUnknownFields() {
+        when(userRepository.projectableFields()).thenReturn(List.of("age", "firstName", "id"));
+
+        assertThrows(InvalidPageRequestException.class, () -> userService.getUsersPage(0, null, null));
+        assertThrows(InvalidPageRequestException.class, () -> userService.getUsersPage(1001, null, null));
+        InvalidPageRequestException exception = assertThrows(InvalidPageRequestException.class,
+                () -> userService.getUsersPage(10, null, List.of("company")));
+        assertTrue(exception.getMessage().startsWith("Unknown field: company"));
+    }
+
+    @Test
+    void getUsersSortedByAgePage_InvalidOrder() {
+        assertThrows(InvalidSortingOrderException.class, () -> userService.getUsersSortedByAgePage("up", 10, null, null));
+    }
+
 //    @Test
 //    void getUserByIdOrSsn_NullInput() {
 //        // Act & Assert
@@ -0,0 +1,87 @@
+package com.backend.app.service;
+
+import com.backend.app.dao.UserRepository;
+import com.backend.app.dao.UserSnapshotStore;
+import com.backend.app.dto.LoadResult;
+import com.backend.app.event.UsersLoadedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserSnapshotServiceTest {
+
+    private UserSnapshotStore userSnapshotStore;
+    private UserRepository userRepository;
+    private UserCacheInvalidator userCacheInvalidator;
+    private UserSnapshotService userSnapshotService;
+    private Path file;
+
+    @TempDir
+    private Path dir;
+
+    @BeforeEach
+    void setUp() {
+        userSnapshotStore = mock(UserSnapshotStore.class);
+        userRepository = mock(UserRepository.class);
+        userCacheInvalidator = mock(UserCacheInvalidator.class);
+        userSnapshotService = new UserSnapshotService(userSnapshotStore, userRepository, userCacheInvalidator);
+        file = dir.resolve("users.snapshot");
+        ReflectionTestUtils.setField(userSnapshotService, "enabled", true);
+        ReflectionTestUtils.setField(userSnapshotService, "path", file.toString());
+    }
+
+    @Test
+    void restore_LoadsSnapshotIntoEmptyTableAndClearsCaches() throws IOException {
+        Files.createFile(file);
+        when(userRepository.count()).thenReturn(0L);
+        when(userSnapshotStore.restore(file)).thenReturn(5L);
+
+        assertEquals(5, userSnapshotService.restore());
+        verify(userCacheInvalidator).clear();
+    }
+
+    @Test
+    void restore_SkipsWhenTableHasUsersOrSnapshotIsMissing() throws IOException {
+        assertEquals(0, userSnapshotService.restore());
+
+        Files.createFile(file);
+        when(userRepository.count()).thenReturn(3L);
+        assertEquals(0, userSnapshotService.restore());
+        verify(userSnapshotStore, never()).restore(any());
+    }
+
+    @Test
+    void restore_StartsEmptyWhenSnapshotIsUnreadable() throws IOException {
+        Files.createFile(file);
+        when(userSnapshotStore.restore(file)).thenThrow(new IOException("Snapshot failed its checksum."));
+
+        assertEquals(0, userSnapshotService.restore());
+        verify(userCacheInvalidator, never()).clear();
+    }
+
+    @Test
+    void onUsersLoaded_WritesSnapshotOnlyAfterChangesOrWhenMissing() throws IOException {
+        LoadResult unchanged = new LoadResult();
+        unchanged.setUnchanged(10);
+        LoadResult changed = new LoadResult();
+        changed.setUpdated(1);
+
+        userSnapshotService.onUsersLoaded(new UsersLoadedEvent(unchanged));
+        verify(userSnapshotStore, times(1)).write(file);
+
+        Files.createFile(file);
+        userSnapshotService.onUsersLoaded(new UsersLoadedEvent(unchanged));
+        verify(userSnapshotStore, times(1)).write(file);
+
+        userSnapshotService.onUsersLoaded(new UsersLoadedEvent(changed));
+        verify(userSnapshotStore, times(2)).write(file);
+    }
+}
@@ -0,0 +1,56 @@
+package com.backend.app.service;
+
+import com.backend.app.dto.ValidationError;
+import com.backend.app.entity.User;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserValidationStageTest {
+
+    private UserValidationStage userValidationStage;
+
+    @BeforeEach
+    void setUp() {
+        userValidationStage = new UserValidationStage(Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(userValidationStage, "parallelThreshold", 8);
+    }
+
+    @Test
+    void validate_SplitsLargeChunksAndKeepsInputOrder() {
+        List<User> users = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            // Every tenth user is too old
+            users.add(new User(id, "First" + id, "Last" + id, null, id % 10 == 0 ? 200 : 30, "male", null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, "user", null));
+        }
+
+        UserValidationStage.Result result = userValidationStage.validate(users);
+
+        assertEquals(900, result.validUsers().size());
+        assertEquals(100, result.invalidUsers());
+        assertEquals(100, result.errors().size());
+        assertEquals(new ValidationError(10L, "age", "Max"), result.errors().get(0));
+        for (int i = 1; i < result.validUsers().size(); i++) {
+            assertTrue(result.validUsers().get(i - 1).getId() < result.validUsers().get(i).getId());
+        }
+    }
+
+    @Test
+    void validate_ReportsEveryViolationOfAUser() {
+        User user = new User(1L, null, "L", null, -1, "unknown", "not-an-email", null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, "user", null);
+
+        UserValidationStage.Result result = userValidationStage.validate(List.of(user));
+
+        assertTrue(result.validUsers().isEmpty());
+        assertEquals(1, result.invalidUsers());
+        assertEquals(5, result.errors().size());
+        assertTrue(result.errors().contains(new ValidationError(1L, "firstName", "NotNull")));
+        assertTrue(result.errors().contains(new ValidationError(1L, "email", "Email")));
+    }
+}
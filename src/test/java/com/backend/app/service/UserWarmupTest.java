@@ -0,0 +1,158 @@
+package com.backend.app.service;
+
+import com.backend.app.dao.UserRepository;
+import com.backend.app.dto.LoadResult;
+import com.backend.app.dto.UserPage;
+import com.backend.app.entity.Address;
+import com.backend.app.entity.Company;
+import com.backend.app.entity.Coordinates;
+import com.backend.app.entity.User;
+import com.backend.app.exception.ExternalApiException;
+import com.backend.app.exception.UserNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserWarmupTest {
+
+    private UserService userService;
+    private UserExportService userExportService;
+    private UserLookupService userLookupService;
+    private UserSearchIndex userSearchIndex;
+    private UserGeoIndex userGeoIndex;
+    private UserAggregates userAggregates;
+    private UserColumnStore userColumnStore;
+    private UserLoadCoordinator userLoadCoordinator;
+    private UserRepository userRepository;
+    private UserWarmup userWarmup;
+
+    @BeforeEach
+    void setUp() {
+        userService = mock(UserService.class);
+        userExportService = mock(UserExportService.class);
+        userLookupService = mock(UserLookupService.class);
+        userSearchIndex = mock(UserSearchIndex.class);
+        userGeoIndex = mock(UserGeoIndex.class);
+        userAggregates = mock(UserAggregates.class);
+        userColumnStore = mock(UserColumnStore.class);
+        userLoadCoordinator = mock(UserLoadCoordinator.class);
+        userRepository = mock(UserRepository.class);
+        userWarmup = new UserWarmup(userService, userExportService, userLookupService, userSearchIndex, userGeoIndex,
+                userAggregates, userColumnStore, userLoadCoordinator, userRepository, new ObjectMapper());
+        ReflectionTestUtils.setField(userWarmup, "enabled", true);
+        ReflectionTestUtils.setField(userWarmup, "cacheUsers", 2);
+        ReflectionTestUtils.setField(userWarmup, "iterations", 3);
+        when(userService.getUsersPage(anyInt(), any(), any())).thenReturn(new UserPage(List.of(), null));
+    }
+
+    @Test
+    void health_OutOfServiceUntilWarmUpCompletes() {
+        assertEquals(Status.OUT_OF_SERVICE, userWarmup.health().getStatus());
+        assertEquals(UserWarmup.PENDING, userWarmup.health().getDetails().get("phase"));
+
+        userWarmup.warmUp();
+
+        assertEquals(Status.UP, userWarmup.health().getStatus());
+        assertEquals(UserWarmup.COMPLETE, userWarmup.health().getDetails().get("phase"));
+    }
+
+    @Test
+    void health_UpWhenDisabled() {
+        ReflectionTestUtils.setField(userWarmup, "enabled", false);
+
+        assertEquals(Status.UP, userWarmup.health().getStatus());
+    }
+
+    @Test
+    void warmUp_LoadsOnlyWhenTableIsEmpty() throws ExternalApiException {
+        when(userRepository.count()).thenReturn(0L);
+        when(userLoadCoordinator.load()).thenReturn(new LoadResult());
+        userWarmup.warmUp();
+        verify(userLoadCoordinator).load();
+
+        when(userRepository.count()).thenReturn(5L);
+        userWarmup.warmUp();
+        verify(userLoadCoordinator, times(1)).load();
+    }
+
+    @Test
+    void warmUp_PrimesCachesByIdAndSsnAndExercisesEndpoints() throws IOException {
+        when(userRepository.count()).thenReturn(3L);
+        when(userService.getUsersPage(eq(2), isNull(), isNull()))
+                .thenReturn(new UserPage(List.of(user(1L, "123-45-6789"), user(2L, null)), "next"));
+        when(userService.getUsersByRole(anyString())).thenThrow(new UserNotFoundException("none"));
+
+        userWarmup.warmUp();
+
+        verify(userService, times(1 + 2)).getUserByIdOrSsn("1");
+        verify(userService, times(1 + 2)).getUserByIdOrSsn("123-45-6789");
+        verify(userService, times(1 + 1)).getUserByIdOrSsn("2");
+        verify(userService).getAllUsers();
+        verify(userService, times(4)).getUsersByRole(anyString());
+        verify(userExportService).export(eq(ExportFormat.NDJSON), any());
+        verify(userAggregates).stats();
+        verify(userService, times(3)).getUsersSortedByAgePage(eq("asc"), anyInt(), isNull(), isNull());
+        verify(userLookupService, times(3)).lookup(anyList());
+        verify(userSearchIndex, times(2)).search("First1", 20);
+        verify(userGeoIndex, times(2)).near(40.5, -74.5, 50, 100);
+        verify(userGeoIndex, times(2)).within(39.5, -75.5, 41.5, -73.5, 100);
+        verify(userColumnStore, times(3)).filter(argThat(filter -> filter.getMinAge() == 30
+                && filter.getMaxAge() == 39 && filter.getRole().equals(List.of("admin"))), eq(100), isNull());
+        assertEquals(Status.UP, userWarmup.health().getStatus());
+    }
+
+    @Test
+    void warmUp_SkipsWholeTableEndpointsAboveThreshold() throws IOException {
+        ReflectionTestUtils.setField(userWarmup, "fullTableMaxRows", 2L);
+        when(userRepository.count()).thenReturn(3L);
+
+        userWarmup.warmUp();
+
+        verify(userService, never()).getAllUsers();
+        verify(userService, never()).getUsersByRole(anyString());
+        verify(userService, never()).getUsersSortedByAge(anyString());
+        verify(userExportService, never()).export(any(), any());
+        verify(userService, times(3)).getUsersPage(100, null, null);
+        assertEquals(Status.UP, userWarmup.health().getStatus());
+    }
+
+    @Test
+    void warmUp_CompletesWhenLoadFails() throws ExternalApiException {
+        when(userRepository.count()).thenReturn(0L);
+        when(userLoadCoordinator.load()).thenThrow(new ExternalApiException("upstream down", null));
+        when(userService.getUsersPage(anyInt(), any(), any())).thenThrow(new IllegalStateException("no database"));
+
+        userWarmup.warmUp();
+
+        assertEquals(Status.UP, userWarmup.health().getStatus());
+    }
+
+    private static User user(Long id, String ssn) {
+        User user = new User();
+        user.setId(id);
+        user.setSsn(ssn);
+        user.setFirstName("First" + id);
+        user.setRole("admin");
+        user.setAge(30 + id.intValue());
+        if (ssn != null) {
+            Coordinates coordinates = new Coordinates();
+            coordinates.setLat(40.5);
+            coordinates.setLng(-74.5);
+            Address address = new Address();
+            address.setCoordinates(coordinates);
+            Company company = new Company();
+            company.setAddress(address);
+            user.setCompany(company);
+        }
+        return user;
+    }
+}
@@ -0,0 +1,77 @@
+package com.backend.app.support;
+
+import com.backend.app.entity.Address;
+import com.backend.app.entity.Bank;
+import com.backend.app.entity.Company;
+import com.backend.app.entity.Coordinates;
+import com.backend.app.entity.Crypto;
+import com.backend.app.entity.Hair;
+import com.backend.app.entity.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fully populated users shaped like the external API's, shared by the tests, benchmarks and load tests.
+ */
+public final class TestUsers {
+    private static final String[] ROLES = {"admin", "user", "moderator"};
+
+    private TestUsers() {
+    }
+
+    public static List<User> generate(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            users.add(user(i));
+        }
+        return users;
+    }
+
+    public static User user(long id) {
+        User user = new User(id, "First" + id, "Last" + id, "Maiden" + id, (int) (18 + id % 60),
+                id % 2 == 0 ? "female" : "male", "user" + id + "@example.com", "+1 555-" + id, "user" + id,
+                "password" + id, "1990-1-" + (1 + id % 28), "https://dummyjson.com/icon/user" + id + "/128", "O+",
+                170.0 + id % 20, 60.0 + id % 30, "Brown", null, "10.0." + id % 256 + "." + id % 200,
+                "47:fa:41:18:ec:eb", "University of Wisconsin", null, null, "977-175", ssn(id),
+                "Mozilla/5.0 (Windows NT 10.0; Win64; x64)", ROLES[(int) (id % ROLES.length)], null);
+        Hair hair = new Hair();
+        hair.setColor("Brown");
+        hair.setType("Curly");
+        user.setHair(hair);
+        Bank bank = new Bank();
+        bank.setCardExpire("03/26");
+        bank.setCardNumber("9289760655481815");
+        bank.setCardType("Elo");
+        bank.setCurrency("CNY");
+        bank.setIban("YPUXISOBI7TTHPK2BR3HAIXL");
+        user.setBank(bank);
+        Coordinates coordinates = new Coordinates();
+        coordinates.setLat(-77.16213 + id % 1000 / 100.0);
+        coordinates.setLng(-92.084824 + id % 1000 / 100.0);
+        Address address = new Address();
+        address.setAddress(id + " Fifth Street");
+        address.setCity("Phoenix");
+        address.setState("Mississippi");
+        address.setStateCode("MS");
+        address.setPostalCode("20020");
+        address.setCountry("United States");
+        address.setCoordinates(coordinates);
+        Company company = new Company();
+        company.setDepartment("Engineering");
+        company.setName("Dooley, Kozey and Cronin");
+        company.setTitle("Sales Manager");
+        company.setAddress(address);
+        user.setCompany(company);
+        Crypto crypto = new Crypto();
+        crypto.setCoin("Bitcoin");
+        crypto.setWallet("0xb9fc2fe63b2a6c003f1c324c3bfa53259162181a");
+        crypto.setNetwork("Ethereum (ERC20)");
+        user.setCrypto(crypto);
+        return user;
+    }
+
+    public static String ssn(long id) {
+        return String.format("%03d-%02d-%04d", id / 1_000_000 % 1000, id / 10_000 % 100, id % 10_000);
+    }
+}